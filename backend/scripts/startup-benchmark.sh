@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+# Compare le temps jusqu'à la première requête réussie et la mémoire résidente (RSS)
+# des modes de démarrage : jvm, aot, cds (AOT + AppCDS) et native.
+#
+# Prérequis (depuis backend/) :
+#   mvn -Pfast-startup package -DskipTests              # jar avec AOT + target/cds/application.jsa
+#   mvn -Pnative native:compile -DskipTests             # facultatif : target/chatop
+#   base MySQL et variables SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD, JWT_SECRET_KEY (ou .env)
+#
+# Usage : scripts/startup-benchmark.sh [exécutions par mode, 5 par défaut]
+# Résultat : target/startup-benchmark.json (une entrée par mode : médiane et maximum).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${CHATOP_BENCHMARK_PORT:-18080}"
+JAR="target/cds/chatop-0.0.1-SNAPSHOT.jar"
+ARCHIVE="target/cds/application.jsa"
+NATIVE="target/chatop"
+OUTPUT="target/startup-benchmark.json"
+URL="http://localhost:${PORT}/actuator/health"
+
+if [[ -f .env ]]; then
+  set -a
+  # shellcheck disable=SC1091
+  source .env
+  set +a
+fi
+
+command_for() {
+  case "$1" in
+    jvm)    echo "java -jar ${JAR}" ;;
+    aot)    echo "java -Dspring.aot.enabled=true -jar ${JAR}" ;;
+    cds)    echo "java -XX:SharedArchiveFile=${ARCHIVE} -Dspring.aot.enabled=true -jar ${JAR}" ;;
+    native) echo "${NATIVE}" ;;
+  esac
+}
+
+available() {
+  case "$1" in
+    native) [[ -x "${NATIVE}" ]] ;;
+    cds)    [[ -f "${JAR}" && -f "${ARCHIVE}" ]] ;;
+    *)      [[ -f "${JAR}" ]] ;;
+  esac
+}
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Une exécution : affiche "<millisecondes jusqu'au premier 200> <RSS en Ko>"
+measure() {
+  local start pid elapsed rss
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  $(command_for "$1") --server.port="${PORT}" > "target/startup-$1.log" 2>&1 &
+  pid=$!
+  until curl -fs -o /dev/null "${URL}"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "Le mode $1 s'est arrêté avant de répondre, voir target/startup-$1.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(awk '/VmRSS/ { print $2 }' "/proc/${pid}/status")
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  echo "${elapsed} ${rss}"
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+entries=()
+for mode in jvm aot cds native; do
+  if ! available "${mode}"; then
+    echo "Mode ${mode} ignoré (artefact absent)" >&2
+    continue
+  fi
+  times=()
+  rss=()
+  for _ in $(seq "${RUNS}"); do
+    read -r elapsed kb < <(measure "${mode}")
+    times+=("${elapsed}")
+    rss+=("${kb}")
+  done
+  time_median=$(printf '%s\n' "${times[@]}" | median)
+  time_max=$(printf '%s\n' "${times[@]}" | sort -n | tail -1)
+  rss_median=$(printf '%s\n' "${rss[@]}" | median)
+  echo "${mode} : premier 200 en ${time_median} ms (médiane), RSS ${rss_median} Ko" >&2
+  entries+=("\"${mode}\": {\"runs\": ${RUNS}, \"firstRequestMsMedian\": ${time_median}, \"firstRequestMsMax\": ${time_max}, \"rssKbMedian\": ${rss_median}}")
+done
+
+{
+  echo "{"
+  for i in "${!entries[@]}"; do
+    separator=","
+    [[ $i -eq $(( ${#entries[@]} - 1 )) ]] && separator=""
+    echo "  ${entries[$i]}${separator}"
+  done
+  echo "}"
+} > "${OUTPUT}"
+echo "Résultats écrits dans ${OUTPUT}" >&2
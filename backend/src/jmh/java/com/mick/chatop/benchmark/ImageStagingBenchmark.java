@@ -0,0 +1,68 @@
+package com.mick.chatop.benchmark;
+
+import com.mick.chatop.storage.ImageStorage;
+import com.mick.chatop.storage.StagedImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copie d'une image envoyée vers le répertoire de transit ({@link ImageStorage#stage}),
+ * chemin qui remplace l'ancien {@code saveFile}. Chaque invocation écrit puis supprime le fichier.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageStagingBenchmark {
+
+    @Param({"65536", "1048576"})
+    public int size;
+
+    private Path uploadDir;
+    private ImageStorage imageStorage;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("chatop-bench-uploads");
+        imageStorage = new ImageStorage(uploadDir.toString(), Duration.ofHours(1), new SimpleMeterRegistry());
+        byte[] content = new byte[size];
+        ThreadLocalRandom.current().nextBytes(content);
+        file = new MockMultipartFile("picture", "picture.jpg", "image/jpeg", content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public StagedImage stage() {
+        StagedImage image = imageStorage.stage(file);
+        imageStorage.discard(image);
+        return image;
+    }
+}
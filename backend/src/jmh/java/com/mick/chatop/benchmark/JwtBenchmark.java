@@ -0,0 +1,71 @@
+package com.mick.chatop.benchmark;
+
+import com.mick.chatop.security.JwtService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature et vérification des JWT, configurés comme dans {@code SecurityConfiguration} (HS512).
+ *
+ * - {@code generateToken} : émission d'un token à la connexion ({@link JwtService}).
+ * - {@code decode} : vérification de la signature et des dates, à chaque requête authentifiée.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final byte[] SECRET =
+            "benchmark-secret-key-benchmark-secret-key-benchmark-secret-key-64".getBytes(StandardCharsets.UTF_8);
+
+    private JwtService jwtService;
+    private JwtDecoder jwtDecoder;
+    private Authentication authentication;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(new NimbusJwtEncoder(new ImmutableSecret<>(SECRET)), Set.of());
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(SECRET, "HmacSHA512"))
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+        authentication = new UsernamePasswordAuthenticationToken("user@test.com", null, List.of());
+        token = jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+}
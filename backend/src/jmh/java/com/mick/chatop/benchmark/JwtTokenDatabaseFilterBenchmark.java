@@ -0,0 +1,102 @@
+package com.mick.chatop.benchmark;
+
+import com.mick.chatop.entity.TokenEntity;
+import com.mick.chatop.repository.TokenRepository;
+import com.mick.chatop.security.JwtTokenDatabaseFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surcoût de {@link JwtTokenDatabaseFilter} hors base de données : le repository est remplacé
+ * par un bouchon qui répond immédiatement, seul le travail du filtre (en-tête, métriques,
+ * réponse d'erreur) est mesuré.
+ *
+ * - {@code validToken} : token connu et valide, la requête continue.
+ * - {@code unknownToken} : token inconnu, réponse 401 écrite par le filtre.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtTokenDatabaseFilterBenchmark {
+
+    private static final String VALID_TOKEN = "valid.jwt.token";
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        JwtTokenDatabaseFilter filter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            TokenEntity valid = new TokenEntity();
+            valid.setToken(VALID_TOKEN);
+            Optional<TokenEntity> found = Optional.of(valid);
+
+            TokenRepository repository = (TokenRepository) Proxy.newProxyInstance(
+                    TokenRepository.class.getClassLoader(),
+                    new Class<?>[]{TokenRepository.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "findByToken" -> VALID_TOKEN.equals(args[0]) ? found : Optional.empty();
+                        case "toString" -> "StubTokenRepository";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+            filter = new JwtTokenDatabaseFilter(repository, new SimpleMeterRegistry());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest valid;
+        MockHttpServletRequest unknown;
+        final FilterChain chain = (request, response) -> { };
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            valid = new MockHttpServletRequest("GET", "/api/rentals");
+            valid.addHeader("Authorization", "Bearer " + VALID_TOKEN);
+            unknown = new MockHttpServletRequest("GET", "/api/rentals");
+            unknown.addHeader("Authorization", "Bearer unknown.jwt.token");
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse validToken(Filter filter, Exchange exchange) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // OncePerRequestFilter marque la requête : l'attribut est retiré pour la traversée suivante
+        exchange.valid.clearAttributes();
+        filter.filter.doFilter(exchange.valid, response, exchange.chain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unknownToken(Filter filter, Exchange exchange) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exchange.unknown.clearAttributes();
+        filter.filter.doFilter(exchange.unknown, response, exchange.chain);
+        return response;
+    }
+}
@@ -0,0 +1,107 @@
+package com.mick.chatop.benchmark;
+
+import com.mick.chatop.config.RateLimitProperties;
+import com.mick.chatop.ratelimit.RateLimiter;
+import com.mick.chatop.security.RateLimitFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le surcoût de la limitation de débit sur le chemin critique d'une requête.
+ *
+ * - {@code acquire} : consommation d'un jeton sur une route partagée par 10 000 clients.
+ * - {@code filterLimitedRoute} : traversée complète du filtre sur une route limitée.
+ * - {@code filterUnlimitedRoute} : traversée du filtre sur une route non limitée.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        RateLimiter rateLimiter;
+        RateLimiter.Route route;
+        RateLimitFilter filter;
+        String[] clientIps;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Capacité très élevée : on mesure le coût d'un jeton accordé, pas celui d'un rejet
+            RateLimitProperties properties = new RateLimitProperties(true, Duration.ofMinutes(10), Map.of(
+                    "create-message", new RateLimitProperties.Route("POST", "/api/messages",
+                            1_000_000, Duration.ofSeconds(1))));
+            rateLimiter = new RateLimiter(properties);
+            route = rateLimiter.match("POST", "/api/messages");
+            filter = new RateLimitFilter(rateLimiter);
+
+            clientIps = new String[CLIENTS];
+            long now = System.nanoTime();
+            for (int i = 0; i < CLIENTS; i++) {
+                clientIps[i] = "10.0." + (i / 256) + "." + (i % 256);
+                route.tryAcquireForClient(clientIps[i], now);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest limited;
+        MockHttpServletRequest unlimited;
+        MockHttpServletResponse response;
+        final FilterChain chain = (request, response) -> { };
+
+        @Setup(Level.Trial)
+        public void setUp(Limiter limiter) {
+            String ip = limiter.clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)];
+            limited = new MockHttpServletRequest("POST", "/api/messages");
+            limited.setRemoteAddr(ip);
+            unlimited = new MockHttpServletRequest("GET", "/api/rentals");
+            unlimited.setRemoteAddr(ip);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public long acquire(Limiter limiter) {
+        String ip = limiter.clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return limiter.route.tryAcquireForClient(ip, System.nanoTime());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterLimitedRoute(Limiter limiter, Exchange exchange) throws Exception {
+        limiter.filter.doFilter(exchange.limited, exchange.response, exchange.chain);
+        return exchange.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterUnlimitedRoute(Limiter limiter, Exchange exchange) throws Exception {
+        limiter.filter.doFilter(exchange.unlimited, exchange.response, exchange.chain);
+        return exchange.response;
+    }
+}
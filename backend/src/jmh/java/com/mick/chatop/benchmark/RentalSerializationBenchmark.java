@@ -0,0 +1,82 @@
+package com.mick.chatop.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.entity.RentalEntity;
+import com.mick.chatop.entity.UserEntity;
+import com.mick.chatop.mapper.RentalMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la réponse de {@code GET /api/rentals} hors base de données.
+ *
+ * - {@code toDto} : conversion d'une entité par {@link RentalMapper}.
+ * - {@code toDtoList} : conversion d'une page de {@code rentals} entités.
+ * - {@code serializeList} : sérialisation JSON de la page, avec un {@link ObjectMapper}
+ *   configuré comme celui de Spring Boot (dates {@code java.time}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RentalSerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int rentals;
+
+    private final RentalMapper mapper = new RentalMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<RentalEntity> entities;
+    private Map<String, List<RentalDto>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserEntity owner = new UserEntity("owner@test.com", "Owner", "hash");
+        owner.setId(1);
+        LocalDateTime now = LocalDateTime.now();
+
+        entities = new ArrayList<>(rentals);
+        for (int i = 0; i < rentals; i++) {
+            entities.add(new RentalEntity(i, "Rental " + i, 40.0 + i, 850.0 + i,
+                    "Bright apartment close to the city centre, fully furnished. ".repeat(4),
+                    "http://localhost:8080/api/rentals/image/" + i + "_picture.jpg", owner, now, now));
+        }
+        response = Map.of("rentals", entities.stream().map(mapper::toDTO).toList());
+    }
+
+    @Benchmark
+    public RentalDto toDto() {
+        return mapper.toDTO(entities.getFirst());
+    }
+
+    @Benchmark
+    public List<RentalDto> toDtoList() {
+        return entities.stream().map(mapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
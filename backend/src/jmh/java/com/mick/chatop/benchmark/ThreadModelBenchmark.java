@@ -0,0 +1,122 @@
+package com.mick.chatop.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare les threads de plateforme (pool de 200, comme Tomcat par défaut) et les threads virtuels
+ * sur une charge mixte proche de l'API :
+ * - 80 % de lectures : attente d'une connexion (sémaphore de 10, comme le pool Hikari)
+ *   puis d'une requête MySQL simulée (2 ms) ;
+ * - 20 % d'envois d'images : réception lente du corps (10 ms) puis écriture de 256 Ko sur disque.
+ *
+ * Chaque invocation traite un lot de {@code requests} requêtes concurrentes ; la mesure est la durée du lot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_THREADS = 200;
+    private static final byte[] IMAGE = new byte[256 * 1024];
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"2000"})
+    public int requests;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+    private Path uploadDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        connections = new Semaphore(POOL_SIZE, true);
+        uploadDir = Files.createTempDirectory("chatop-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        try (var files = Files.list(uploadDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(uploadDir);
+    }
+
+    @Benchmark
+    public int mixedReadUpload() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            boolean upload = ThreadLocalRandom.current().nextInt(5) == 0;
+            futures.add(executor.submit(upload ? this::upload : this::read));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private void read() {
+        try {
+            connections.acquire();
+            try {
+                Thread.sleep(2);
+            } finally {
+                connections.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void upload() {
+        try {
+            Thread.sleep(10);
+            Path file = Files.createTempFile(uploadDir, "upload", ".jpg");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(IMAGE);
+            }
+            Files.delete(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package com.mick.chatop;
 
+import com.mick.chatop.config.ChatopRuntimeHints;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(ChatopRuntimeHints.class)
 public class ChatopApplication {
 
     public static void main(String[] args) {
-        // Charger le fichier .env
-        Dotenv dotenv = Dotenv.load();
+        // Charger le fichier .env s'il existe (facultatif : profil de test, variables déjà exportées)
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
 
         // Injecter les variables dans l'environnement
-        System.setProperty("SPRING_DATASOURCE_USERNAME", dotenv.get("SPRING_DATASOURCE_USERNAME"));
-        System.setProperty("SPRING_DATASOURCE_PASSWORD", dotenv.get("SPRING_DATASOURCE_PASSWORD"));
-        System.setProperty("JWT_SECRET_KEY", dotenv.get("JWT_SECRET_KEY"));
+        setPropertyIfPresent(dotenv, "SPRING_DATASOURCE_USERNAME");
+        setPropertyIfPresent(dotenv, "SPRING_DATASOURCE_PASSWORD");
+        setPropertyIfPresent(dotenv, "JWT_SECRET_KEY");
 
         // Lancer Spring Boot
         SpringApplication.run(ChatopApplication.class, args);
     }
+
+    private static void setPropertyIfPresent(Dotenv dotenv, String name) {
+        String value = dotenv.get(name);
+        if (value != null) {
+            System.setProperty(name, value);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.mick.chatop.bulk;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Types de contenu acceptés par l'import et produits par l'export des annonces.
+ */
+public final class BulkMediaTypes {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private BulkMediaTypes() {
+    }
+}
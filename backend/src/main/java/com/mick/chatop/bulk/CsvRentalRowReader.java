@@ -0,0 +1,131 @@
+package com.mick.chatop.bulk;
+
+import com.mick.chatop.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecteur CSV en flux (RFC 4180 : séparateur virgule, champs entre guillemets, guillemets doublés).
+ *
+ * La première ligne est l'en-tête : elle doit contenir les colonnes {@code name}, {@code surface},
+ * {@code price}, {@code description} et {@code picture}, dans un ordre quelconque.
+ */
+public class CsvRentalRowReader implements RentalRowReader {
+
+    private static final List<String> COLUMNS = List.of("name", "surface", "price", "description", "picture");
+
+    private final BufferedReader reader;
+    private final int[] positions = new int[COLUMNS.size()];
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private boolean eof;
+
+    /**
+     * @param reader Flux du fichier.
+     * @throws BadRequestException Si l'en-tête est absent ou incomplet.
+     */
+    public CsvRentalRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("Empty CSV file");
+        }
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            indexes.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = indexes.get(COLUMNS.get(i));
+            if (position == null) {
+                throw new BadRequestException("Missing CSV column: " + COLUMNS.get(i));
+            }
+            positions[i] = position;
+        }
+    }
+
+    @Override
+    public RentalImportRow next() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.getFirst().isEmpty()) {
+                continue; // ligne vide
+            }
+            for (int position : positions) {
+                if (position >= record.size()) {
+                    return RentalImportRow.unreadable(start, "Expected at least " + (position + 1) + " columns");
+                }
+            }
+            return new RentalImportRow(start,
+                    record.get(positions[0]), record.get(positions[1]), record.get(positions[2]),
+                    record.get(positions[3]), record.get(positions[4]), null);
+        }
+    }
+
+    /**
+     * Lit un enregistrement complet (qui peut s'étendre sur plusieurs lignes si un champ est entre guillemets).
+     *
+     * @return Les champs de l'enregistrement, ou {@code null} à la fin du flux.
+     */
+    private List<String> readRecord() throws IOException {
+        if (eof) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                eof = true;
+                if (!any) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            }
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (following != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                record.add(field.toString());
+                return record;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
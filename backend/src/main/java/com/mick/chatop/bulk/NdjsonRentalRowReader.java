@@ -0,0 +1,53 @@
+package com.mick.chatop.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lecteur NDJSON en flux : un objet JSON par ligne, par exemple
+ * {@code {"name":"...","surface":50,"price":800,"description":"...","picture":"https://..."}}.
+ * Une ligne illisible est signalée sans interrompre la lecture des suivantes.
+ */
+public class NdjsonRentalRowReader implements RentalRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    public NdjsonRentalRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public RentalImportRow next() throws IOException {
+        String json;
+        do {
+            json = reader.readLine();
+            line++;
+            if (json == null) {
+                return null;
+            }
+        } while (json.isBlank());
+
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (!node.isObject()) {
+                return RentalImportRow.unreadable(line, "Expected a JSON object");
+            }
+            return new RentalImportRow(line, text(node, "name"), text(node, "surface"), text(node, "price"),
+                    text(node, "description"), text(node, "picture"), null);
+        } catch (JsonProcessingException e) {
+            return RentalImportRow.unreadable(line, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,27 @@
+package com.mick.chatop.bulk;
+
+/**
+ * Ligne d'import d'annonce, telle que lue dans le fichier (CSV ou NDJSON).
+ *
+ * @param line        Numéro de la ligne dans le fichier (pour le rapport d'erreurs)
+ * @param name        Nom de l'annonce
+ * @param surface     Surface en m²
+ * @param price       Prix de la location
+ * @param description Description de l'annonce
+ * @param picture     Référence de l'image : URL absolue, ou nom d'un fichier déjà présent dans le stockage
+ * @param error       Erreur de lecture de la ligne ({@code null} si la ligne est lisible)
+ */
+public record RentalImportRow(
+        long line,
+        String name,
+        String surface,
+        String price,
+        String description,
+        String picture,
+        String error
+) {
+
+    public static RentalImportRow unreadable(long line, String error) {
+        return new RentalImportRow(line, null, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mick.chatop.bulk;
+
+import java.io.IOException;
+
+/**
+ * Lecture en flux des lignes d'un fichier d'import : une seule ligne est en mémoire à la fois.
+ */
+public interface RentalRowReader {
+
+    /**
+     * @return La ligne suivante, ou {@code null} à la fin du fichier.
+     * @throws IOException En cas d'erreur de lecture du flux.
+     */
+    RentalImportRow next() throws IOException;
+}
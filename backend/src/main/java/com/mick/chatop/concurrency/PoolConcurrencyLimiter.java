@@ -0,0 +1,31 @@
+package com.mick.chatop.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Place une {@link ConcurrencyLimitedDataSource} devant un pool Hikari, avec autant de jetons que le pool
+ * a de connexions. La limite est propre à chaque pool : la primaire et chaque réplica ont leur sémaphore,
+ * et une lecture servie par un réplica ne consomme aucun jeton de la primaire.
+ */
+public class PoolConcurrencyLimiter {
+
+    private final Duration acquireTimeout;
+
+    /**
+     * @param acquireTimeout Durée maximale d'attente d'un jeton.
+     */
+    public PoolConcurrencyLimiter(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * @param pool Pool Hikari, configuré (sa taille maximale est lue à l'appel).
+     * @return Le pool derrière un sémaphore de {@code maximumPoolSize} jetons.
+     */
+    public DataSource limit(HikariDataSource pool) {
+        return new ConcurrencyLimitedDataSource(pool, pool.getMaximumPoolSize(), acquireTimeout);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mick.chatop.concurrency;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Détection de l'épinglage des threads virtuels ("pinning").
+ *
+ * Un thread virtuel qui se bloque à l'intérieur d'un bloc {@code synchronized} (ou d'un appel natif)
+ * reste attaché à son thread porteur et prive les autres threads virtuels de ce porteur.
+ * Ce moniteur s'abonne à l'événement JFR {@code jdk.VirtualThreadPinned} et journalise
+ * chaque épinglage plus long que le seuil configuré, avec le haut de sa pile d'appels.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final LongAdder pinnedCount = new LongAdder();
+    private RecordingStream recordingStream;
+
+    /**
+     * @param threshold Durée d'épinglage au-delà de laquelle un événement est rapporté.
+     */
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::report);
+        recordingStream.startAsync();
+        logger.info("Surveillance de l'épinglage des threads virtuels active (seuil {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * @return Le nombre d'épinglages rapportés depuis le démarrage.
+     */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCount.increment();
+        logger.warn("Thread virtuel épinglé pendant {} ms :{}", event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (pile indisponible)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(REPORTED_FRAMES)
+                .map(frame -> "\n\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining());
+    }
+}
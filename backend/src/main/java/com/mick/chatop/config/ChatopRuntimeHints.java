@@ -0,0 +1,40 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.streaming.RentalChangedEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Indications de réflexion pour l'image native (profil Maven {@code native}).
+ *
+ * Spring déduit les types des corps de requête et de réponse des contrôleurs, mais pas ceux sérialisés
+ * indirectement (valeurs d'une {@code Map}, événements SSE, export NDJSON, corps d'erreur pré-sérialisés).
+ * Tous les records de {@code com.mick.chatop.dto} et toutes les entités sont donc déclarés ici.
+ * Le parcours des paquets a lieu lors du traitement AOT, au build : il ne coûte rien au démarrage.
+ */
+public class ChatopRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> REFLECTIVE_PACKAGES = List.of("com.mick.chatop.dto", "com.mick.chatop.entity");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        for (String basePackage : REFLECTIVE_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+        }
+        // Sérialisé en JSON par le flux des changements d'annonces, hors du paquet dto
+        hints.reflection().registerType(RentalChangedEvent.class, MemberCategory.values());
+        hints.reflection().registerType(RentalChangedEvent.Kind.class, MemberCategory.values());
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,64 @@
+package com.mick.chatop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Volumes et distributions du générateur de données synthétiques (profil {@code datagen}),
+ * chargés depuis les propriétés {@code chatop.datagen.*}.
+ *
+ * @param users             Nombre d'utilisateurs à créer
+ * @param rentals           Nombre d'annonces à créer
+ * @param messages          Nombre de messages à créer
+ * @param tokens            Nombre de tokens à créer (dont {@code revokedRatio} révoqués)
+ * @param revokedRatio      Part des tokens révoqués
+ * @param ownerSkew         Exposant de la loi de Zipf des propriétaires (quelques gros propriétaires, beaucoup de petits)
+ * @param messageSkew       Exposant de la loi de Zipf des annonces contactées (quelques annonces très demandées)
+ * @param seed              Graine : deux exécutions avec la même graine produisent les mêmes données
+ * @param rowsPerStatement  Nombre de lignes par requête INSERT multi-lignes
+ * @param workers           Nombre de lots écrits en parallèle
+ * @param start             Date de la première ligne générée
+ * @param span              Période sur laquelle les dates de création sont réparties
+ */
+@ConfigurationProperties(prefix = "chatop.datagen")
+public record DataGeneratorProperties(
+        @DefaultValue("100000")
+        int users,
+
+        @DefaultValue("1000000")
+        int rentals,
+
+        @DefaultValue("20000000")
+        long messages,
+
+        @DefaultValue("200000")
+        int tokens,
+
+        @DefaultValue("0.8")
+        double revokedRatio,
+
+        @DefaultValue("1.1")
+        double ownerSkew,
+
+        @DefaultValue("1.2")
+        double messageSkew,
+
+        @DefaultValue("42")
+        long seed,
+
+        @DefaultValue("1000")
+        int rowsPerStatement,
+
+        @DefaultValue("8")
+        int workers,
+
+        @DefaultValue("2024-01-01T00:00:00")
+        LocalDateTime start,
+
+        @DefaultValue("730d")
+        Duration span
+) {
+}
@@ -0,0 +1,53 @@
+package com.mick.chatop.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Interception des requêtes SQL (datasource-proxy).
+ *
+ * La source de données n'est enveloppée que si au moins un écouteur est déclaré comme bean
+ * (en-tête {@code Server-Timing}, statistiques SQL) : sans écouteur, aucun proxy n'est ajouté.
+ * Les {@code ResultSet} ne sont enveloppés que si un écouteur de méthodes JDBC est déclaré.
+ */
+@Configuration
+public class DataSourceProxyConfiguration {
+
+    /**
+     * Déclaré {@code static} : un post-processeur doit être créé avant les autres beans.
+     * Les écouteurs sont résolus au moment d'envelopper la source de données.
+     */
+    @Bean
+    static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> queryListeners,
+                                                          ObjectProvider<MethodExecutionListener> methodListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                List<QueryExecutionListener> queries = queryListeners.orderedStream().toList();
+                List<MethodExecutionListener> methods = methodListeners.orderedStream().toList();
+                if (queries.isEmpty() && methods.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                queries.forEach(builder::listener);
+                methods.forEach(builder::methodListener);
+                if (!methods.isEmpty()) {
+                    builder.proxyResultSet();
+                }
+                return builder.build();
+            }
+        };
+    }
+}
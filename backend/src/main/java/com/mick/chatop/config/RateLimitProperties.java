@@ -0,0 +1,40 @@
+package com.mick.chatop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration de la limitation de débit, chargée depuis les propriétés {@code chatop.rate-limit.*}.
+ *
+ * Chaque route limitée déclare sa méthode HTTP, son chemin exact et le nombre de requêtes
+ * autorisées ({@code capacity}) par période de recharge ({@code refill-period}).
+ *
+ * @param enabled      Active ou désactive le filtre de limitation
+ * @param idleTimeout  Durée après laquelle un seau plein et inutilisé est supprimé
+ * @param routes       Limites par route, indexées par un nom libre (login, register, ...)
+ */
+@ConfigurationProperties(prefix = "chatop.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("10m")
+        Duration idleTimeout,
+
+        Map<String, Route> routes
+) {
+
+    /**
+     * Limite appliquée à une route.
+     *
+     * @param method       Méthode HTTP (POST, GET, ...)
+     * @param path         Chemin exact de la requête
+     * @param capacity     Nombre de requêtes autorisées en rafale
+     * @param refillPeriod Durée nécessaire pour recharger entièrement le seau
+     */
+    public record Route(String method, String path, int capacity, Duration refillPeriod) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.concurrency.PoolConcurrencyLimiter;
+import com.mick.chatop.datasource.ReadWriteRoutingDataSource;
+import com.mick.chatop.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routage des lectures vers des réplicas ({@code chatop.datasource.replicas.enabled=true}).
+ *
+ * La source de données exposée est une {@link LazyConnectionDataSourceProxy} autour d'une
+ * {@link ReadWriteRoutingDataSource} : la primaire est construite à partir de {@code spring.datasource.*}
+ * (pool Hikari compris), chaque réplica à partir de {@code chatop.datasource.replicas.*}.
+ * Les méthodes de service {@code @Transactional(readOnly = true)} sont alors servies par les réplicas.
+ *
+ * Les pools n'étant pas des beans, ils sont rattachés explicitement au registre de métriques
+ * (métriques {@code hikaricp.*}, étiquette {@code pool}) et, en mode threads virtuels, placés chacun
+ * derrière sa propre limite de concurrence ({@link PoolConcurrencyLimiter}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "chatop.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReplicaDataSourceProperties replicaProperties,
+                                 Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 ObjectProvider<PoolConcurrencyLimiter> concurrencyLimiter) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+        pools.add(primary);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaProperties.urls().get(i));
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setUsername(replicaProperties.username() != null
+                    ? replicaProperties.username() : dataSourceProperties.determineUsername());
+            replica.setPassword(replicaProperties.password() != null
+                    ? replicaProperties.password() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            pools.add(replica);
+            replicas.add(limit(replica, concurrencyLimiter));
+        }
+
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(limit(primary, concurrencyLimiter), replicas));
+    }
+
+    /**
+     * En mode threads virtuels, limite le pool à sa propre taille ; sinon le rend tel quel.
+     */
+    private static DataSource limit(HikariDataSource pool, ObjectProvider<PoolConcurrencyLimiter> concurrencyLimiter) {
+        PoolConcurrencyLimiter limiter = concurrencyLimiter.getIfAvailable();
+        return limiter != null ? limiter.limit(pool) : pool;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.readYourWritesWindow());
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mick.chatop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration des réplicas en lecture, chargée depuis les propriétés {@code chatop.datasource.replicas.*}.
+ *
+ * @param enabled              Active le routage lecture/écriture
+ * @param urls                 URL JDBC des réplicas
+ * @param username             Utilisateur des réplicas (celui de la primaire par défaut)
+ * @param password             Mot de passe des réplicas (celui de la primaire par défaut)
+ * @param maximumPoolSize      Taille du pool de connexions de chaque réplica
+ * @param readYourWritesWindow Durée pendant laquelle un utilisateur ayant écrit lit sur la primaire
+ */
+@ConfigurationProperties(prefix = "chatop.datasource.replicas")
+public record ReplicaDataSourceProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue
+        List<String> urls,
+
+        String username,
+
+        String password,
+
+        @DefaultValue("10")
+        int maximumPoolSize,
+
+        @DefaultValue("2s")
+        Duration readYourWritesWindow
+) {
+}
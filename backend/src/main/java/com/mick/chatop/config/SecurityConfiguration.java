@@ -1,8 +1,19 @@
 package com.mick.chatop.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mick.chatop.datasource.ReadYourWritesTracker;
+import com.mick.chatop.idempotency.IdempotencyStore;
+import com.mick.chatop.metrics.TimedPasswordEncoder;
+import com.mick.chatop.ratelimit.RateLimiter;
 import com.mick.chatop.security.ApiAuthentificationEntryPoint;
+import com.mick.chatop.security.IdempotencyFilter;
+import com.mick.chatop.security.JwtService;
+import com.mick.chatop.security.RateLimitFilter;
+import com.mick.chatop.security.ReadYourWritesFilter;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,9 +39,11 @@ import com.mick.chatop.security.JwtTokenDatabaseFilter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationFilter;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfiguration {
 
     /**
@@ -51,35 +64,62 @@ public class SecurityConfiguration {
      */
     @Autowired
     private JwtTokenDatabaseFilter jwtTokenDatabaseFilter;
+    /**
+     * Registre des seaux à jetons utilisés par le filtre de limitation de débit.
+     * Le filtre lui-même est placé APRÈS BearerTokenAuthenticationFilter pour connaître le sujet authentifié.
+     */
+    @Autowired
+    private RateLimiter rateLimiter;
+    /**
+     * Registre des clés d'idempotence (mémoire ou base selon chatop.idempotency.store).
+     * Le filtre d'idempotence est placé après le filtre de limitation de débit.
+     */
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    /**
+     * Durée maximale d'attente d'une requête dupliquée pendant le traitement de l'originale.
+     */
+    @Value("${chatop.idempotency.wait:10s}")
+    private Duration idempotencyWait;
+    /**
+     * Suivi des écritures récentes, présent uniquement lorsque des réplicas en lecture sont configurés.
+     */
+    @Autowired(required = false)
+    private ReadYourWritesTracker readYourWritesTracker;
 
     /**
      * Bean pour encoder les mots de passe.
      * Utilise BCrypt, un algorithme de hachage robuste adapté aux mots de passe.
+     * Les hachages et vérifications (connexion) sont chronométrés.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     /**
      * Point d'entrée personnalisé pour gérer les requêtes non authentifiées.
-     * Retourne une réponse JSON normalisée en cas d'accès refusé.
+     * Retourne une réponse JSON normalisée en cas d'accès refusé, sérialisée avec l'ObjectMapper partagé.
      */
     @Bean
-    public AuthenticationEntryPoint apiAuthenticationEntryPoint() {
-        return new ApiAuthentificationEntryPoint();
+    public AuthenticationEntryPoint apiAuthenticationEntryPoint(ObjectMapper objectMapper) {
+        return new ApiAuthentificationEntryPoint(objectMapper);
     }
 
     /**
      * Chaîne de filtres de sécurité HTTP.
      * - Désactive CSRF car l’API est stateless.
      * - Déclare les endpoints publics accessibles sans authentification.
+     * - Réserve {@code /actuator/sqlstats} (requêtes SQL normalisées) et {@code /actuator/prometheus}
+     *   (métriques, dont les routes et les volumes de l'application) aux administrateurs ; seul
+     *   {@code /actuator/health} reste public pour les sondes.
      * - Toutes les autres requêtes nécessitent un JWT valide.
      * - Configure le serveur de ressources OAuth2 pour la validation des JWT.
      * - Déclare le point d’entrée personnalisé pour gérer les erreurs d’authentification.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AuthenticationEntryPoint apiAuthenticationEntryPoint) throws Exception {
         http
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(AbstractHttpConfigurer::disable)
@@ -88,18 +128,28 @@ public class SecurityConfiguration {
                     "/api/auth/login",
                     "/api/auth/register",
                     "/api/rentals/image/**",
+                    "/actuator/health",
                     "/swagger-ui/**",
                     "/v3/api-docs/**",
                     "/swagger-ui.html"
                 ).permitAll()
+                .requestMatchers("/actuator/sqlstats", "/actuator/prometheus").hasAuthority("SCOPE_" + JwtService.ADMIN_SCOPE)
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
             .exceptionHandling(exception -> exception
-                .authenticationEntryPoint(apiAuthenticationEntryPoint())
+                .authenticationEntryPoint(apiAuthenticationEntryPoint)
             );
         // Ajouter le filtre AVANT BearerTokenAuthenticationFilter
         http.addFilterBefore(jwtTokenDatabaseFilter, BearerTokenAuthenticationFilter.class);
+        // Limiter le débit APRÈS BearerTokenAuthenticationFilter (IP + sujet authentifié)
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), BearerTokenAuthenticationFilter.class);
+        // Idempotence des créations, après la limitation de débit (même ancre, ordre d'ajout conservé)
+        http.addFilterAfter(new IdempotencyFilter(idempotencyStore, idempotencyWait), BearerTokenAuthenticationFilter.class);
+        // Lecture de ses propres écritures sur la primaire lorsque des réplicas sont configurés
+        if (readYourWritesTracker != null) {
+            http.addFilterAfter(new ReadYourWritesFilter(readYourWritesTracker), BearerTokenAuthenticationFilter.class);
+        }
         return http.build();
     }
 
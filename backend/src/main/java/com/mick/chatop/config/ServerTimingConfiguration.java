@@ -0,0 +1,98 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.metrics.ServerTiming;
+import com.mick.chatop.metrics.ServerTimingFilter;
+import com.mick.chatop.metrics.ServerTimingInterceptor;
+import com.mick.chatop.metrics.ServerTimingJacksonConverter;
+import com.mick.chatop.metrics.ServerTimingQueryListener;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * En-tête {@code Server-Timing} ({@code chatop.server-timing.enabled=true}).
+ *
+ * Chaque phase est mesurée là où elle a lieu :
+ * - recherche du token en base : {@code JwtTokenDatabaseFilter} ;
+ * - décodage du JWT : {@link JwtDecoder} enveloppé ;
+ * - requêtes SQL : écouteur datasource-proxy ({@link DataSourceProxyConfiguration}) ;
+ * - contrôleur et sérialisation : intercepteur MVC et convertisseur Jackson.
+ *
+ * Sans cette propriété, rien n'est enveloppé ni enregistré : il ne reste que la lecture
+ * d'un {@link ThreadLocal} vide dans le filtre du token.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chatop.server-timing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ServerTimingProperties.class)
+public class ServerTimingConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Enregistré avant la chaîne de sécurité, pour inclure l'authentification dans la mesure.
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(properties.excludedPaths()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Comptage et durée des requêtes SQL, branché sur la source de données par {@link DataSourceProxyConfiguration}.
+     */
+    @Bean
+    public ServerTimingQueryListener serverTimingQueryListener() {
+        return new ServerTimingQueryListener();
+    }
+
+    /**
+     * Enveloppe le décodeur JWT.
+     * Déclaré {@code static} : un post-processeur doit être créé avant les autres beans.
+     */
+    @Bean
+    static BeanPostProcessor serverTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JwtDecoder decoder) {
+                    return (JwtDecoder) token -> {
+                        long start = System.nanoTime();
+                        try {
+                            return decoder.decode(token);
+                        } finally {
+                            ServerTiming.add(ServerTiming.Phase.JWT, System.nanoTime() - start);
+                        }
+                    };
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ServerTimingInterceptor());
+    }
+
+    /**
+     * Remplace le convertisseur Jackson par sa variante chronométrée, avec le même {@code ObjectMapper}.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+                && !(converter instanceof ServerTimingJacksonConverter)
+                ? new ServerTimingJacksonConverter(jackson.getObjectMapper())
+                : converter);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mick.chatop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration de l'en-tête {@code Server-Timing}, chargée depuis les propriétés {@code chatop.server-timing.*}.
+ *
+ * @param enabled       Active la mesure des phases de chaque requête (désactivée par défaut)
+ * @param excludedPaths Chemins (motifs Ant) dont la réponse ne doit pas être mise en tampon : fichiers servis
+ *                      de façon synchrone (les réponses asynchrones ne sont jamais mises en tampon)
+ */
+@ConfigurationProperties(prefix = "chatop.server-timing")
+public record ServerTimingProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("/api/rentals/image/**")
+        List<String> excludedPaths
+) {
+}
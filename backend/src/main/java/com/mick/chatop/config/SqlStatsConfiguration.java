@@ -0,0 +1,42 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.metrics.SqlStatementStats;
+import com.mick.chatop.metrics.SqlStatsEndpoint;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Statistiques SQL ({@code chatop.sql-stats.enabled=true}) :
+ * - statistiques Hibernate ({@code hibernate.generate_statistics}) ;
+ * - écouteur datasource-proxy {@link SqlStatementStats} (branché par {@link DataSourceProxyConfiguration}) ;
+ * - point d'entrée actuator {@code sqlstats}, à ajouter à {@code management.endpoints.web.exposure.include}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chatop.sql-stats.enabled", havingValue = "true")
+@EnableConfigurationProperties(SqlStatsProperties.class)
+public class SqlStatsConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    @Bean
+    public SqlStatementStats sqlStatementStats(SqlStatsProperties properties) {
+        return new SqlStatementStats(properties.slowThreshold(), properties.maxStatements());
+    }
+
+    @Bean
+    public SqlStatsEndpoint sqlStatsEndpoint(SqlStatementStats sqlStatementStats,
+                                             EntityManagerFactory entityManagerFactory,
+                                             SqlStatsProperties properties) {
+        return new SqlStatsEndpoint(sqlStatementStats, entityManagerFactory.unwrap(SessionFactory.class),
+                properties.topN());
+    }
+}
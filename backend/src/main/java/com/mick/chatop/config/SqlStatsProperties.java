@@ -0,0 +1,30 @@
+package com.mick.chatop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration des statistiques SQL, chargée depuis les propriétés {@code chatop.sql-stats.*}.
+ *
+ * @param enabled        Active les statistiques Hibernate et l'interception des requêtes SQL
+ * @param slowThreshold  Durée au-delà de laquelle une requête est journalisée avec sa pile d'appel
+ * @param topN           Nombre de requêtes de chaque classement exposé par {@code /actuator/sqlstats}
+ * @param maxStatements  Nombre maximal de requêtes normalisées distinctes suivies
+ */
+@ConfigurationProperties(prefix = "chatop.sql-stats")
+public record SqlStatsProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("200ms")
+        Duration slowThreshold,
+
+        @DefaultValue("20")
+        int topN,
+
+        @DefaultValue("1000")
+        int maxStatements
+) {
+}
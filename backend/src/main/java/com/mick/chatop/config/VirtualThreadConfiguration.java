@@ -0,0 +1,66 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.concurrency.ConcurrencyLimitedDataSource;
+import com.mick.chatop.concurrency.PoolConcurrencyLimiter;
+import com.mick.chatop.concurrency.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Configuration du mode "threads virtuels" ({@code spring.threads.virtual.enabled=true}).
+ *
+ * Dans ce mode, Spring Boot exécute les requêtes Tomcat, les tâches {@code @Async} et les tâches
+ * planifiées sur des threads virtuels. Cette configuration ajoute :
+ * - une limite de concurrence devant chaque pool Hikari (primaire et réplicas), calée sur sa taille ;
+ * - la détection des épinglages de threads virtuels (JFR).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "chatop.jdbc.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    PoolConcurrencyLimiter poolConcurrencyLimiter(Environment environment) {
+        return new PoolConcurrencyLimiter(environment.getProperty("chatop.jdbc.concurrency-limit.acquire-timeout",
+                Duration.class, Duration.ofSeconds(30)));
+    }
+
+    /**
+     * Enveloppe chaque pool Hikari déclaré comme bean dans une {@link ConcurrencyLimitedDataSource}
+     * calée sur sa propre taille. Les autres sources de données (routage primaire / réplicas) ne sont pas
+     * limitées : {@link ReplicaDataSourceConfiguration} limite elle-même chacun de ses pools.
+     * Déclaré {@code static} : un post-processeur doit être créé avant les autres beans ; le limiteur
+     * est résolu au moment d'envelopper le pool.
+     */
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(ObjectProvider<PoolConcurrencyLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    PoolConcurrencyLimiter poolConcurrencyLimiter = limiter.getIfAvailable();
+                    if (poolConcurrencyLimiter != null) {
+                        return poolConcurrencyLimiter.limit(pool);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chatop.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment) {
+        return new VirtualThreadPinningMonitor(environment.getProperty(
+                "chatop.virtual-threads.pinning-monitor.threshold", Duration.class, Duration.ofMillis(20)));
+    }
+}
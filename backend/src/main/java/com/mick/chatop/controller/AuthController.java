@@ -1,6 +1,7 @@
 package com.mick.chatop.controller;
 
 import com.mick.chatop.dto.*;
+import com.mick.chatop.exception.UnauthorizedException;
 import com.mick.chatop.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +11,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.springframework.context.support.DefaultMessageSourceResolvable;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -44,9 +42,10 @@ public class AuthController {
     /**
      * Authentifie un utilisateur et retourne un token JWT.
      *
+     * Les erreurs de validation et d'authentification sont traduites par le gestionnaire global.
+     *
      * @param request les informations de connexion de l'utilisateur (email, mot de passe)
-     * @param result le résultat de la validation du formulaire
-     * @return une réponse contenant le token JWT si succès, ou une erreur détaillée sinon
+     * @return une réponse contenant le token JWT
      */
     @Operation(
             summary = "Log in a user and return a JWT token",
@@ -74,28 +73,15 @@ public class AuthController {
                                     """)))
             })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, BindingResult result) {
-        if (result.hasErrors()) {
-            String errorMessage = result.getAllErrors().stream()
-                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                    .reduce((e1, e2) -> e1 + "; " + e2).orElse("Validation error");
-            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", 400, errorMessage));
-        }
-
-        try {
-            return ResponseEntity.ok(userService.login(request));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("UNAUTHORIZED", 401, "Authentication failed: " + e.getMessage()));
-        }
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(userService.login(request));
     }
 
     /**
      * Enregistre un nouvel utilisateur et retourne un token JWT.
      *
      * @param request les informations d'inscription de l'utilisateur (nom, email, mot de passe)
-     * @param result le résultat de la validation du formulaire
-     * @return une réponse contenant le token JWT si l'inscription réussit, ou une erreur détaillée sinon
+     * @return une réponse contenant le token JWT si l'inscription réussit
      */
     @Operation(
             summary = "Register a new user",
@@ -123,27 +109,15 @@ public class AuthController {
                                     }))
             })
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, BindingResult result) {
-        if (result.hasErrors()) {
-            String errorMessage = result.getAllErrors().stream()
-                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                    .reduce((e1, e2) -> e1 + "; " + e2).orElse("Validation error");
-            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", 400, errorMessage));
-        }
-
-        try {
-            return ResponseEntity.ok(userService.register(request));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("BAD_REQUEST", 400, "Registration failed : " + e.getMessage()));
-        }
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+        return ResponseEntity.ok(userService.register(request));
     }
 
     /**
      * Retourne les informations de l'utilisateur actuellement authentifié.
      *
      * @param authentication l'objet Spring Security contenant les informations de l'utilisateur connecté
-     * @return les données de l'utilisateur connecté, ou une erreur 401 si le token est manquant ou invalide
+     * @return les données de l'utilisateur connecté (401 géré globalement si l'utilisateur est inconnu)
      */
     @Operation(
             summary = "Get the current authenticated user's information",
@@ -162,13 +136,8 @@ public class AuthController {
                                     """)))
             })
     @GetMapping("/me")
-    public ResponseEntity<?> getAuthenticatedUser(Authentication authentication) {
-        try {
-            return ResponseEntity.ok(userService.getAuthenticatedUser(authentication));
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("UNAUTHORIZED", 401, e.getMessage()));
-        }
+    public ResponseEntity<UserDto> getAuthenticatedUser(Authentication authentication) {
+        return ResponseEntity.ok(userService.getAuthenticatedUser(authentication));
     }
 
     /**
@@ -189,10 +158,9 @@ public class AuthController {
                                     examples = @ExampleObject(name = "UnauthorizedResponse", value = "{\"error\": \"UNAUTHORIZED\",\"status\":401,\"message\":\"Token missing or invalid\"}")))
             })
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorizationHeader) {
+    public ResponseEntity<SuccessResponse> logout(@RequestHeader("Authorization") String authorizationHeader) {
         if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("UNAUTHORIZED", 401, "Token missing or invalid"));
+            throw new UnauthorizedException("Token missing or invalid");
         }
         String token = authorizationHeader.substring(7);
         userService.logout(token);
@@ -0,0 +1,92 @@
+package com.mick.chatop.controller;
+
+import com.mick.chatop.dto.ErrorResponse;
+import com.mick.chatop.dto.InboxPageDto;
+import com.mick.chatop.dto.SuccessResponse;
+import com.mick.chatop.service.InboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST de la boîte de réception des propriétaires.
+ *
+ * Une conversation regroupe les messages d'un expéditeur sur une annonce ; elle expose
+ * l'extrait du dernier message, sa date et le nombre de messages non lus.
+ *
+ * URL racine : /api/inbox
+ */
+@Tag(name = "Inbox", description = "Owner inbox APIs")
+@RestController
+@RequestMapping("/api/inbox")
+public class InboxController {
+
+    private final InboxService inboxService;
+
+    /**
+     * Constructeur injectant le service de boîte de réception.
+     *
+     * @param inboxService Service métier de la boîte de réception
+     */
+    public InboxController(InboxService inboxService) {
+        this.inboxService = inboxService;
+    }
+
+    /**
+     * Récupère une page des conversations de l'utilisateur connecté, la plus récemment active en premier.
+     *
+     * @param cursor         Curseur renvoyé par la page précédente (absent pour la première page)
+     * @param size           Nombre de conversations par page (100 maximum)
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return La page de conversations et le curseur de la page suivante
+     */
+    @Operation(
+            summary = "List the conversations received on the owner's rentals (keyset pagination)",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of conversations",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = InboxPageDto.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            })
+    @GetMapping
+    public ResponseEntity<InboxPageDto> getInbox(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(inboxService.getInbox(cursor, size, authentication));
+    }
+
+    /**
+     * Marque une conversation comme lue (remise à zéro du compteur de non-lus).
+     *
+     * @param id             Identifiant de la conversation
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return Un message de succès (404 géré globalement si la conversation est introuvable)
+     */
+    @Operation(
+            summary = "Mark a conversation as read",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Conversation marked as read",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SuccessResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Conversation not found",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            })
+    @PostMapping("/{id}/read")
+    public ResponseEntity<SuccessResponse> markAsRead(@PathVariable Integer id, Authentication authentication) {
+        inboxService.markAsRead(id, authentication);
+        return ResponseEntity.ok(new SuccessResponse("Conversation marked as read"));
+    }
+}
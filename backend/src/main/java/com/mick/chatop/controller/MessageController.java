@@ -1,6 +1,8 @@
 package com.mick.chatop.controller;
 
 import com.mick.chatop.dto.ErrorResponse;
+import com.mick.chatop.dto.MessageDto;
+import com.mick.chatop.dto.MessagePageDto;
 import com.mick.chatop.dto.MessageRequestDto;
 import com.mick.chatop.dto.SuccessResponse;
 import com.mick.chatop.service.MessageService;
@@ -12,15 +14,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.springframework.context.support.DefaultMessageSourceResolvable;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Contrôleur REST pour la gestion des messages.
@@ -54,13 +57,15 @@ public class MessageController {
      *
      * Réponses possibles :
      * 
-     *     200 - Message envoyé avec succès
+     *     200 - Message envoyé avec succès (validé en base)
+     *     202 - Message en cours d'écriture à l'expiration du délai d'acquittement : il ne doit pas être renvoyé
      *     400 - Erreur de validation (champ manquant ou invalide)
      *     401 - Utilisateur non authentifié
+     *     404 - Utilisateur ou annonce introuvable
      * 
+     * Les erreurs sont traduites par le gestionnaire global.
      *
      * @param messageRequestDto     Données du message à créer (corps de la requête)
-     * @param bindingResult         Résultat de la validation du DTO
      * @param authentication        Contexte d’authentification de Spring Security
      * @return ResponseEntity contenant un message de succès ou une erreur détaillée
      */
@@ -86,6 +91,13 @@ public class MessageController {
                                     }
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Message accepted: still being saved when the acknowledgement timeout expired, do not resend it",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SuccessResponse.class))
+                    ),
                     @ApiResponse(
                             responseCode = "400",
                             description = "Bad Request: Validation error or illegal argument",
@@ -129,45 +141,63 @@ public class MessageController {
             }
     )
     @PostMapping
-    public ResponseEntity<?> createMessage(
+    public ResponseEntity<SuccessResponse> createMessage(
             @Valid @RequestBody MessageRequestDto messageRequestDto,
-            BindingResult bindingResult,
             Authentication authentication) {
-        try {
-            if (bindingResult.hasErrors()) {
-                String errorMessage = bindingResult.getAllErrors()
-                        .stream()
-                        .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                        .reduce((e1, e2) -> e1 + "; " + e2)
-                        .orElse("Validation error");
+        if (!messageService.createMessage(messageRequestDto)) {
+            return ResponseEntity.accepted().body(new SuccessResponse("Message accepted, saving in progress"));
+        }
+        return ResponseEntity.ok(new SuccessResponse("Message sent with success"));
+    }
 
-                return ResponseEntity
-                        .badRequest()
-                        .body(new ErrorResponse(
-                                "BAD_REQUEST",
-                                HttpStatus.BAD_REQUEST.value(),
-                                errorMessage
-                        ));
-            }
-            messageService.createMessage(messageRequestDto);
-            return ResponseEntity.ok(new SuccessResponse("Message sent with success"));
+    /**
+     * Récupère une page des messages envoyés par un utilisateur, du plus récent au plus ancien.
+     * Un utilisateur ne peut consulter que ses propres messages.
+     *
+     * @param userId         Identifiant de l’expéditeur
+     * @param cursor         Curseur renvoyé par la page précédente (absent pour la première page)
+     * @param size           Nombre de messages par page (100 maximum)
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return La page de messages et le curseur de la page suivante
+     */
+    @Operation(
+            summary = "List the messages sent by a user (keyset pagination)",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of messages",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessagePageDto.class))),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: messages of another user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            })
+    @GetMapping
+    public ResponseEntity<MessagePageDto> getUserMessages(
+            @RequestParam Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(messageService.getUserMessages(userId, cursor, size, authentication));
+    }
 
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(
-                    new ErrorResponse(
-                            "BAD_REQUEST",
-                            HttpStatus.BAD_REQUEST.value(),
-                            e.getMessage()
-                    )
-            );
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-                    new ErrorResponse(
-                            "UNAUTHORIZED",
-                            HttpStatus.UNAUTHORIZED.value(),
-                            e.getMessage()
-                    )
-            );
-        }
+    /**
+     * Ouvre un flux Server-Sent Events des messages reçus sur les annonces de l'utilisateur connecté.
+     *
+     * Chaque nouveau message est envoyé sous forme d'un événement {@code message} dont les données
+     * sont le message au format JSON. Un commentaire est envoyé périodiquement pour maintenir la connexion.
+     *
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return L'émetteur SSE de la connexion
+     */
+    @Operation(
+            summary = "Stream the messages received on the owner's rentals (Server-Sent Events)",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Event stream of new messages",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = MessageDto.class))),
+                    @ApiResponse(responseCode = "429", description = "Too many open streams for this user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(Authentication authentication) {
+        return messageService.streamMessages(authentication);
     }
 }
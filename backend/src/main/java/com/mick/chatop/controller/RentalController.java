@@ -1,24 +1,42 @@
 package com.mick.chatop.controller;
 
+import com.mick.chatop.bulk.BulkMediaTypes;
+import com.mick.chatop.dto.MessagePageDto;
 import com.mick.chatop.dto.NewRentalDto;
 import com.mick.chatop.dto.RentalMessageResponse;
 import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.dto.RentalImportReportDto;
+import com.mick.chatop.dto.RentalPageDto;
+import com.mick.chatop.dto.TrendingRentalsDto;
 import com.mick.chatop.dto.UpdateRentalDto;
+import com.mick.chatop.exception.BadRequestException;
+import com.mick.chatop.service.MessageService;
+import com.mick.chatop.service.RentalBulkService;
 import com.mick.chatop.service.RentalService;
+import com.mick.chatop.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Contrôleur REST pour la gestion des locations (rentals).
@@ -26,10 +44,14 @@ import java.util.NoSuchElementException;
  * 
  * Fournit les opérations CRUD sur les annonces de location :
  * - Récupération de toutes les annonces
+ * - Récupération paginée des annonces de l’utilisateur connecté
+ * - Classement des annonces les plus contactées (24 heures ou 7 jours)
+ * - Flux des créations et modifications d’annonces (Server-Sent Events)
  * - Consultation d’une annonce par ID
  * - Création d’une nouvelle annonce (avec image)
  * - Récupération d’une image liée à une annonce
  * - Mise à jour d’une annonce
+ * - Consultation paginée des messages reçus pour une annonce
  * 
  * 
  * URL racine :</b> /api/rentals
@@ -39,66 +61,198 @@ import java.util.NoSuchElementException;
 public class RentalController {
 
     private final RentalService rentalService;
+    private final MessageService messageService;
+    private final RentalBulkService rentalBulkService;
+    private final UserService userService;
+    private final DistributionSummary servedImageBytes;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * Constructeur injectant le service de gestion des rentals.
+     * Constructeur injectant les services de gestion des rentals et des messages.
      * 
-     * @param rentalService Service métier pour les annonces
+     * @param rentalService     Service métier pour les annonces
+     * @param messageService    Service métier pour les messages
+     * @param rentalBulkService Service d’import et d’export en masse des annonces
+     * @param userService       Service utilisateur (noms des propriétaires)
+     * @param meterRegistry     Registre des métriques (images servies)
      */
-    public RentalController(RentalService rentalService) {
+    public RentalController(RentalService rentalService, MessageService messageService,
+                            RentalBulkService rentalBulkService, UserService userService,
+                            MeterRegistry meterRegistry) {
         this.rentalService = rentalService;
+        this.messageService = messageService;
+        this.rentalBulkService = rentalBulkService;
+        this.userService = userService;
+        this.meterRegistry = meterRegistry;
+        this.servedImageBytes = DistributionSummary.builder("chatop.images.served")
+                .description("Size of rental pictures served")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     /**
      * Récupère la liste de toutes les annonces de location.
      *
+     * Avec {@code embed=owner}, la réponse contient aussi une map "owners" (identifiant → nom)
+     * des propriétaires des annonces, lue en une seule requête : le client n'a plus à
+     * récupérer chaque propriétaire séparément.
+     *
+     * @param embed Ressource liée à inclure dans la réponse (seule valeur prise en charge : "owner")
      * @return Réponse contenant une map avec la clé "rentals" et une liste de RentalDto
      */
     @GetMapping
-    public ResponseEntity<Map<String, List<RentalDto>>> getAllRentals() {
-        Map<String, List<RentalDto>> response = new HashMap<>();
-        response.put("rentals", rentalService.getAllRentals());
+    public ResponseEntity<Map<String, Object>> getAllRentals(@RequestParam(required = false) String embed) {
+        List<RentalDto> rentals = rentalService.getAllRentals();
+        Map<String, Object> response = new HashMap<>();
+        response.put("rentals", rentals);
+        if ("owner".equals(embed)) {
+            Set<Integer> ownerIds = new HashSet<>();
+            rentals.forEach(rental -> ownerIds.add(rental.ownerId()));
+            response.put("owners", userService.getUserNames(ownerIds));
+        } else if (embed != null) {
+            throw new BadRequestException("Unsupported embed value: " + embed);
+        }
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Récupère une page des annonces de l’utilisateur connecté, de la plus récente à la plus ancienne.
+     *
+     * @param cursor         Curseur renvoyé par la page précédente (absent pour la première page)
+     * @param size           Nombre d’annonces par page (100 maximum)
+     * @param authentication Utilisateur connecté
+     * @return La page d’annonces et le curseur de la page suivante
+     */
+    @GetMapping("/mine")
+    public ResponseEntity<RentalPageDto> getMyRentals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(rentalService.getOwnerRentals(cursor, size, authentication));
+    }
+
+    /**
+     * Récupère les annonces ayant reçu le plus de messages sur les dernières 24 heures ou les 7 derniers jours.
+     * Le classement est tenu à jour en mémoire au fil des messages (rafraîchi chaque seconde).
+     *
+     * @param window Fenêtre : {@code 24h} (par défaut) ou {@code 7d}
+     * @param limit  Nombre d’annonces retournées (10 par défaut)
+     * @return Les identifiants des annonces et leur nombre de messages
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<TrendingRentalsDto> getTrendingRentals(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(rentalService.getTrendingRentals(window, limit));
+    }
+
+    /**
+     * Ouvre un flux Server-Sent Events des créations et modifications d’annonces.
+     *
+     * Chaque changement est envoyé sous forme d’un événement {@code rental} dont les données sont
+     * l’identifiant de l’annonce, la nature du changement et les champs modifiés. Après une reconnexion,
+     * les événements manqués sont rejoués si possible ; sinon un événement {@code reset} invite à relire la liste.
+     *
+     * @param lastEventId    Identifiant du dernier événement reçu (en-tête envoyé par le navigateur à la reconnexion)
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return L'émetteur SSE de la connexion
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRentalChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication) {
+        return rentalService.streamRentalChanges(lastEventId, authentication);
+    }
+
     /**
      * Récupère les détails d’une annonce de location par son ID.
      *
      * @param id Identifiant de l’annonce
-     * @return L’annonce trouvée, ou un message d’erreur en cas d’échec
+     * @return L’annonce trouvée (404 géré globalement si introuvable)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRentalById(@PathVariable Integer id) {
-        try {
-            RentalDto rental = rentalService.getRentalById(id);
-            if (rental == null) {
-                throw new RuntimeException("Rental introuvable");
-            }
-            return ResponseEntity.ok(rental);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(e.getMessage());
-        }
+    public ResponseEntity<RentalDto> getRentalById(@PathVariable Integer id) {
+        RentalDto rental = rentalService.getRentalById(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(rental.version()))
+                .body(rental);
+    }
+
+    /**
+     * Récupère une page des messages reçus pour une annonce, du plus récent au plus ancien.
+     * Réservé au propriétaire de l’annonce.
+     *
+     * @param id             Identifiant de l’annonce
+     * @param cursor         Curseur renvoyé par la page précédente (absent pour la première page)
+     * @param size           Nombre de messages par page (100 maximum)
+     * @param authentication Utilisateur connecté
+     * @return La page de messages et le curseur de la page suivante
+     */
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<MessagePageDto> getRentalMessages(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        return ResponseEntity.ok(messageService.getRentalMessages(id, cursor, size, authentication));
     }
 
     /**
      * Crée une nouvelle annonce de location, avec envoi d’image via Multipart/form-data.
      *
      * @param rentalDto DTO contenant les champs de l’annonce à créer
-     * @return Message de succès ou message d’erreur en cas d’échec
+     * @return Message de succès (les erreurs sont traduites par le gestionnaire global)
      */
     @PostMapping(
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<?> createRental(@ModelAttribute @Valid NewRentalDto rentalDto) {
-        try {
-            rentalService.createRental(rentalDto);
-            return new ResponseEntity<>(new RentalMessageResponse("Rental created !"), HttpStatus.CREATED);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Erreur: " + e.getMessage());
+    public ResponseEntity<RentalMessageResponse> createRental(@ModelAttribute @Valid NewRentalDto rentalDto) {
+        rentalService.createRental(rentalDto);
+        return new ResponseEntity<>(new RentalMessageResponse("Rental created !"), HttpStatus.CREATED);
+    }
+
+    /**
+     * Importe des annonces en masse pour le compte de l’utilisateur connecté.
+     *
+     * Le corps est lu en flux : CSV avec en-tête ({@code name,surface,price,description,picture})
+     * ou NDJSON (un objet par ligne). L’image est référencée par une URL absolue ou par le nom
+     * d’un fichier déjà présent dans le stockage. Les lignes invalides sont rejetées individuellement.
+     *
+     * @param body           Corps de la requête
+     * @param contentType    {@code text/csv} ou {@code application/x-ndjson}
+     * @param authentication Contexte d’authentification de Spring Security
+     * @return Le rapport d’import (lignes créées et lignes rejetées avec leur motif)
+     */
+    @PostMapping(
+            value = "/import",
+            consumes = {BulkMediaTypes.TEXT_CSV_VALUE, BulkMediaTypes.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<RentalImportReportDto> importRentals(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            Authentication authentication) throws IOException {
+        return ResponseEntity.ok(rentalBulkService.importRentals(body, MediaType.parseMediaType(contentType), authentication));
+    }
+
+    /**
+     * Exporte toutes les annonces, écrites en flux au fur et à mesure de leur lecture.
+     *
+     * @param format {@code ndjson} (par défaut) ou {@code csv}
+     * @return Le flux des annonces
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new BadRequestException("Unsupported export format, expected csv or ndjson");
         }
+        StreamingResponseBody body = out -> rentalBulkService.exportRentals(out, format);
+        return ResponseEntity.ok()
+                .contentType(csv ? BulkMediaTypes.TEXT_CSV : BulkMediaTypes.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rentals." + format.toLowerCase() + "\"")
+                .body(body);
     }
 
     /**
@@ -109,17 +263,25 @@ public class RentalController {
      */
     @GetMapping(value = "/image/{filename}", produces = MediaType.IMAGE_JPEG_VALUE)
     public @ResponseBody ResponseEntity<byte[]> getRentalImage(@PathVariable String filename) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             Path filePath = Paths.get("uploads").resolve(filename).normalize();
             if (!Files.exists(filePath) || !Files.isReadable(filePath)) {
+                outcome = "not_found";
                 return ResponseEntity.notFound().build();
             }
             byte[] imageBytes = Files.readAllBytes(filePath);
+            servedImageBytes.record(imageBytes.length);
+            outcome = "found";
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
                     .body(imageBytes);
         } catch (IOException e) {
             return ResponseEntity.internalServerError().build();
+        } finally {
+            // Le nom du fichier n'est pas une étiquette : seule l'issue de la lecture l'est
+            sample.stop(meterRegistry.timer("chatop.images.read", "outcome", outcome));
         }
     }
 
@@ -128,20 +290,42 @@ public class RentalController {
      *
      * @param id Identifiant de l’annonce à mettre à jour
      * @param updateRentalDto DTO contenant les nouvelles valeurs
-     * @return Message de succès, ou erreur si l’annonce est introuvable ou si une exception survient
+     * @param ifMatch         ETag de la version lue par le client (facultatif)
+     * @return Message de succès et ETag de la nouvelle version
+     *         (404 si l’annonce est introuvable, 412 si l’ETag est périmé, 409 en cas de mise à jour concurrente)
      */
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> updateRental(
+    public ResponseEntity<RentalMessageResponse> updateRental(
             @PathVariable Integer id,
-            @ModelAttribute @Valid UpdateRentalDto updateRentalDto) {
+            @ModelAttribute @Valid UpdateRentalDto updateRentalDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = rentalService.updateRental(id, updateRentalDto, parseVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(version))
+                .body(new RentalMessageResponse("Rental updated !"));
+    }
+
+    /**
+     * Extrait la version d'un en-tête {@code If-Match} ({@code "3"}, {@code W/"3"} ou {@code *}).
+     *
+     * @return La version attendue, ou {@code null} si l'en-tête est absent ou vaut {@code *}.
+     * @throws BadRequestException Si l'en-tête n'est pas un ETag de version.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            etag = etag.substring(1, etag.length() - 1);
+        }
         try {
-            rentalService.updateRental(id, updateRentalDto);
-            return ResponseEntity.ok(new RentalMessageResponse("Rental updated !"));
-        } catch (NoSuchElementException e) {
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Erreur: " + e.getMessage());
+            return Long.valueOf(etag);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header");
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.mick.chatop.controller;
 
 import com.mick.chatop.dto.ErrorResponse;
 import com.mick.chatop.dto.UserDto;
+import com.mick.chatop.exception.BadRequestException;
 import com.mick.chatop.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,23 +11,29 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Contrôleur REST pour la gestion des utilisateurs.
  *
- * Fournit un endpoint permettant de récupérer les informations d'un utilisateur par son ID.
+ * Fournit un endpoint permettant de récupérer les informations d'un utilisateur par son ID,
+ * ainsi qu'une recherche groupée des noms (affichage des propriétaires d'une liste d'annonces).
  */
 @Tag(name = "User", description = "User management APIs")
 @RestController
 @RequestMapping("/api/user")
 public class UserController {
 
+    private static final int MAX_IDS = 100;
+
     private final UserService userService;
 
     /**
@@ -43,7 +50,7 @@ public class UserController {
      * Nécessite un token JWT valide.
      *
      * @param id l'identifiant de l'utilisateur
-     * @return les informations de l'utilisateur si trouvé, ou une erreur 401/404
+     * @return les informations de l'utilisateur (404 géré globalement si introuvable)
      */
     @Operation(
             summary = "Get user information by ID",
@@ -71,17 +78,37 @@ public class UserController {
                                     """)))
             })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUser(@PathVariable Integer id) {
-        try {
-            UserDto user = userService.getUserById(id);
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ErrorResponse("NOT_FOUND", 404, "User not found"));
-            }
-            return ResponseEntity.ok(user);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("UNAUTHORIZED", 401, e.getMessage()));
+    public ResponseEntity<UserDto> getUser(@PathVariable Integer id) {
+        return ResponseEntity.ok(userService.getUserById(id));
+    }
+
+    /**
+     * Récupère les noms de plusieurs utilisateurs en une seule requête,
+     * par exemple {@code GET /api/user?ids=1,2,3}.
+     *
+     * @param ids les identifiants des utilisateurs (100 au maximum)
+     * @return les noms indexés par identifiant ; les identifiants inconnus sont absents
+     */
+    @Operation(
+            summary = "Get user names by IDs",
+            security = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Names indexed by user ID",
+                            content = @Content(mediaType = "application/json",
+                                    examples = @ExampleObject(name = "UserNamesResponse", value = """
+                                        {
+                                          "1": "Owner Name",
+                                          "2": "Other Owner"
+                                        }
+                                    """))),
+                    @ApiResponse(responseCode = "400", description = "Too many IDs",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            })
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Integer, String>> getUserNames(@RequestParam List<Integer> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestException("Too many ids, at most " + MAX_IDS + " are allowed");
         }
+        return ResponseEntity.ok(userService.getUserNames(ids));
     }
 }
@@ -0,0 +1,53 @@
+package com.mick.chatop.datagen;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Requête {@code INSERT INTO table (...) VALUES (...), (...), ...} écrivant un lot de lignes en un seul aller-retour.
+ * Le texte SQL d'un lot complet est construit une fois ; seul le dernier lot, plus court, en construit un autre.
+ */
+final class MultiRowInsert {
+
+    private final String prefix;
+    private final String rowPlaceholders;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final String fullStatement;
+
+    MultiRowInsert(String table, List<String> columns, int rowsPerStatement) {
+        this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholders = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        this.columns = columns.size();
+        this.rowsPerStatement = rowsPerStatement;
+        this.fullStatement = sql(rowsPerStatement);
+    }
+
+    /**
+     * @param rows Lignes du lot, chacune avec une valeur par colonne, dans l'ordre des colonnes.
+     */
+    void execute(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[rows.size() * columns];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, args, i * columns, columns);
+        }
+        jdbcTemplate.update(rows.size() == rowsPerStatement ? fullStatement : sql(rows.size()), args);
+    }
+
+    private String sql(int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (rowPlaceholders.length() + 2));
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+}
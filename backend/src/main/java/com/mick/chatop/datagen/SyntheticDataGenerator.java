@@ -0,0 +1,279 @@
+package com.mick.chatop.datagen;
+
+import com.mick.chatop.config.DataGeneratorProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Générateur de données synthétiques pour les tests à grande échelle (profil {@code datagen}).
+ *
+ * Crée, dans l'ordre, des utilisateurs, des annonces, des messages, des tokens puis les conversations
+ * correspondant aux messages. Les propriétaires suivent une loi de Zipf (quelques gros propriétaires),
+ * de même que les annonces contactées (quelques annonces reçoivent l'essentiel des messages).
+ *
+ * Chaque table est écrite par lots ({@code INSERT} multi-lignes) répartis entre plusieurs workers.
+ * Le générateur aléatoire d'un lot est dérivé de la graine, de la table et du numéro du lot :
+ * le résultat est identique d'une exécution à l'autre, quel que soit l'ordonnancement des workers.
+ * Les identifiants de toutes les tables sont attribués explicitement à la suite des lignes existantes,
+ * et non par {@code AUTO_INCREMENT} dans l'ordre d'écriture des workers : ils ne dépendent que de l'index
+ * de la ligne, et les lignes parentes sont référencées sans être relues.
+ *
+ * L'application s'arrête à la fin de la génération.
+ */
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int PLACEHOLDER_IMAGES = 8;
+    private static final String DEFAULT_PASSWORD = "password";
+
+    private static final String[] DESCRIPTIONS = {
+            "Bright apartment close to the city centre, fully furnished.",
+            "Quiet studio with a view on the park, ideal for students.",
+            "Large family house with a garden and a garage.",
+            "Renovated loft in a former factory, high ceilings.",
+            "Small flat near the station, shops and schools within walking distance."
+    };
+    private static final String[] MESSAGES = {
+            "Hello, is it still available?",
+            "Could I visit the place this weekend?",
+            "Are pets allowed?",
+            "Is the price negotiable for a long stay?",
+            "What is included in the rent?",
+            "Thank you for your answer, I am interested."
+    };
+
+    // Le dernier message de chaque conversation est celui de rang 1 (date puis identifiant décroissants)
+    private static final String CONVERSATIONS_SQL = """
+            INSERT INTO conversations (rental_id, user_id, owner_id, last_message, last_message_at, unread_count, created_at, updated_at)
+            SELECT rental_id, user_id, owner_id, LEFT(message, 255), created_at, message_count, first_message_at, created_at
+            FROM (
+                SELECT m.rental_id, m.user_id, r.owner_id, m.message, m.created_at,
+                       COUNT(*) OVER conversation AS message_count,
+                       MIN(m.created_at) OVER conversation AS first_message_at,
+                       ROW_NUMBER() OVER (conversation ORDER BY m.created_at DESC, m.id DESC) AS position
+                FROM messages m JOIN rentals r ON r.id = m.rental_id
+                WHERE m.id > ?
+                WINDOW conversation AS (PARTITION BY m.rental_id, m.user_id)
+            ) latest
+            WHERE position = 1
+            ON DUPLICATE KEY UPDATE
+                last_message = CASE WHEN VALUES(last_message_at) >= last_message_at THEN VALUES(last_message) ELSE last_message END,
+                last_message_at = GREATEST(last_message_at, VALUES(last_message_at)),
+                unread_count = unread_count + VALUES(unread_count),
+                updated_at = VALUES(updated_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final DataGeneratorProperties properties;
+    private final ConfigurableApplicationContext context;
+    private final Path uploadPath;
+    private final String imageBaseUrl;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  DataGeneratorProperties properties,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${file.storage.location}") String uploadDir,
+                                  @Value("${chatop.datagen.image-base-url:http://localhost:8080/api/rentals/image/}") String imageBaseUrl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        this.context = context;
+        this.uploadPath = Paths.get(uploadDir);
+        this.imageBaseUrl = imageBaseUrl;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        int userBase = Math.toIntExact(maxId("users"));
+        int rentalBase = Math.toIntExact(maxId("rentals"));
+        int messageBase = Math.toIntExact(maxId("messages"));
+        long tokenBase = maxId("tokens");
+        writePlaceholderImages();
+
+        // Un seul hachage BCrypt pour tous les comptes : hacher chaque ligne coûterait des heures
+        String passwordHash = passwordEncoder.encode(DEFAULT_PASSWORD);
+        generate("users", properties.users(),
+                new MultiRowInsert("users", List.of("id", "email", "name", "password", "created_at", "updated_at"),
+                        properties.rowsPerStatement()),
+                (i, random) -> {
+                    int id = userBase + 1 + (int) i;
+                    Timestamp createdAt = timestamp(i, properties.users(), random);
+                    return new Object[]{id, "user" + id + "@datagen.chatop", "User " + id, passwordHash, createdAt, createdAt};
+                });
+
+        ZipfSampler owners = new ZipfSampler(properties.users(), properties.ownerSkew());
+        generate("rentals", properties.rentals(),
+                new MultiRowInsert("rentals", List.of("id", "name", "surface", "price", "description", "picture",
+                        "owner_id", "created_at", "updated_at", "version"), properties.rowsPerStatement()),
+                (i, random) -> {
+                    int id = rentalBase + 1 + (int) i;
+                    Timestamp createdAt = timestamp(i, properties.rentals(), random);
+                    return new Object[]{id, "Rental " + id, 15.0 + random.nextInt(185), 300.0 + random.nextInt(4700),
+                            DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                            imageBaseUrl + placeholderName(id % PLACEHOLDER_IMAGES),
+                            userBase + 1 + owners.sample(random), createdAt, createdAt, 0L};
+                });
+
+        ZipfSampler contactedRentals = new ZipfSampler(properties.rentals(), properties.messageSkew());
+        generate("messages", properties.messages(),
+                new MultiRowInsert("messages", List.of("id", "rental_id", "user_id", "message", "created_at", "updated_at"),
+                        properties.rowsPerStatement()),
+                (i, random) -> {
+                    int id = Math.toIntExact(messageBase + 1 + i);
+                    Timestamp createdAt = timestamp(i, properties.messages(), random);
+                    return new Object[]{id, rentalBase + 1 + contactedRentals.sample(random),
+                            userBase + 1 + random.nextInt(properties.users()),
+                            MESSAGES[random.nextInt(MESSAGES.length)], createdAt, createdAt};
+                });
+
+        generate("tokens", properties.tokens(),
+                new MultiRowInsert("tokens", List.of("id", "token", "user_id", "created_at", "valid"),
+                        properties.rowsPerStatement()),
+                (i, random) -> new Object[]{
+                        tokenBase + 1 + i,
+                        "datagen." + (tokenBase + 1 + i) + "." + Long.toHexString(random.nextLong()),
+                        userBase + 1 + random.nextInt(properties.users()),
+                        timestamp(i, properties.tokens(), random),
+                        random.nextDouble() >= properties.revokedRatio()});
+
+        long conversationStart = System.nanoTime();
+        int conversations = jdbcTemplate.update(CONVERSATIONS_SQL, messageBase);
+        logger.info("Conversations : {} lignes en {} s", conversations, seconds(conversationStart));
+
+        logger.info("Génération terminée en {} s", seconds(started));
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /**
+     * Fabrique la ligne {@code index} d'une table à partir du générateur aléatoire de son lot.
+     */
+    @FunctionalInterface
+    interface RowFactory {
+        Object[] row(long index, SplittableRandom random);
+    }
+
+    private void generate(String table, long total, MultiRowInsert insert, RowFactory factory)
+            throws InterruptedException, ExecutionException {
+        if (total <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        int rowsPerStatement = properties.rowsPerStatement();
+        long batches = Math.ceilDiv(total, rowsPerStatement);
+        long tableSeed = properties.seed() ^ table.hashCode() * 0x9E3779B97F4A7C15L;
+
+        ExecutorService workers = Executors.newFixedThreadPool(properties.workers());
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long batch = 0; batch < batches; batch++) {
+                long from = batch * rowsPerStatement;
+                long to = Math.min(total, from + rowsPerStatement);
+                SplittableRandom random = new SplittableRandom(tableSeed + batch * 0xBF58476D1CE4E5B9L);
+                pending.add(workers.submit(() -> {
+                    List<Object[]> rows = new ArrayList<>((int) (to - from));
+                    for (long i = from; i < to; i++) {
+                        rows.add(factory.row(i, random));
+                    }
+                    insert.execute(jdbcTemplate, rows);
+                }));
+                // File d'attente bornée : les lots ne sont construits qu'au rythme de leur écriture
+                if (pending.size() >= properties.workers() * 4) {
+                    awaitFirst(pending);
+                }
+            }
+            while (!pending.isEmpty()) {
+                awaitFirst(pending);
+            }
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double elapsed = seconds(started);
+        logger.info("{} : {} lignes en {} s ({} lignes/s)", table, total, elapsed, Math.round(total / elapsed));
+    }
+
+    private static void awaitFirst(List<Future<?>> pending) throws InterruptedException, ExecutionException {
+        pending.removeFirst().get();
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Les dates croissent avec l'index (comme les identifiants en production), avec une part aléatoire.
+     */
+    private Timestamp timestamp(long index, long total, SplittableRandom random) {
+        double position = (index + random.nextDouble()) / total;
+        LocalDateTime date = properties.start().plusSeconds((long) (position * properties.span().toSeconds()));
+        return Timestamp.valueOf(date);
+    }
+
+    /**
+     * Écrit quelques images de remplacement (aplats de couleur) dans le stockage, si elles n'existent pas déjà.
+     */
+    private void writePlaceholderImages() {
+        try {
+            Files.createDirectories(uploadPath);
+            for (int i = 0; i < PLACEHOLDER_IMAGES; i++) {
+                Path file = uploadPath.resolve(placeholderName(i));
+                if (Files.exists(file)) {
+                    continue;
+                }
+                BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = image.createGraphics();
+                graphics.setColor(Color.getHSBColor((float) i / PLACEHOLDER_IMAGES, 0.4f, 0.9f));
+                graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+                graphics.dispose();
+                ImageIO.write(image, "jpg", file.toFile());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write placeholder images", e);
+        }
+    }
+
+    private static String placeholderName(int index) {
+        return "datagen-placeholder-" + index + ".jpg";
+    }
+
+    private static double seconds(long startNanos) {
+        return Math.round((System.nanoTime() - startNanos) / 1e7) / 100.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mick.chatop.datagen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tirage selon une loi de Zipf sur les rangs {@code 0..n-1} : le rang {@code k} est tiré avec une probabilité
+ * proportionnelle à {@code 1 / (k + 1)^exponent}. La fonction de répartition est calculée une fois
+ * (un {@code double} par rang) ; chaque tirage est une recherche dichotomique.
+ *
+ * Immuable : un même échantillonneur est partagé entre les threads, chacun avec son propre générateur aléatoire.
+ */
+public final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * @return Un rang entre {@code 0} (le plus fréquent) et {@code n - 1}.
+     */
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mick.chatop.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source de données routant les transactions en lecture seule vers les réplicas.
+ *
+ * - Transaction {@code @Transactional(readOnly = true)} : un réplica, choisi à tour de rôle ;
+ * - toute autre connexion (écriture, hors transaction, {@link RoutingContext} forcé) : la primaire.
+ *
+ * Le choix est fait à l'obtention de la connexion : la source doit donc être enveloppée
+ * dans une {@code LazyConnectionDataSourceProxy}, pour que le caractère "lecture seule"
+ * de la transaction soit connu à ce moment-là.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private final int replicaCount;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary  Base primaire (écritures).
+     * @param replicas Réplicas en lecture seule (au moins un).
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+        this.replicaCount = replicas.size();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || RoutingContext.isPrimaryForced()) {
+            return PRIMARY;
+        }
+        return REPLICA_PREFIX + Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+}
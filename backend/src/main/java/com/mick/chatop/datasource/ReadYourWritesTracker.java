@@ -0,0 +1,43 @@
+package com.mick.chatop.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mémorise les utilisateurs ayant écrit récemment.
+ *
+ * Pendant la fenêtre configurée après une écriture, les lectures de l'utilisateur sont servies
+ * par la primaire : la fenêtre doit couvrir le retard de réplication habituel des réplicas.
+ */
+public class ReadYourWritesTracker {
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String subject) {
+        lastWrites.put(subject, System.nanoTime());
+    }
+
+    /**
+     * @return {@code true} si l'utilisateur a écrit depuis moins que la fenêtre.
+     */
+    public boolean wroteRecently(String subject) {
+        Long lastWrite = lastWrites.get(subject);
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    /**
+     * Retire les écritures sorties de la fenêtre.
+     */
+    @Scheduled(fixedDelayString = "${chatop.datasource.replicas.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mick.chatop.datasource;
+
+/**
+ * Contexte de routage des connexions pour le thread courant.
+ *
+ * Lorsqu'il est actif, les transactions en lecture seule sont elles aussi servies par la base primaire :
+ * c'est le cas des requêtes d'écriture et des requêtes d'un utilisateur ayant écrit récemment,
+ * afin qu'il relise toujours ses propres écritures malgré le retard de réplication.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * Force la base primaire pour le thread courant jusqu'à l'appel de {@link #clear()}.
+     */
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return FORCE_PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+}
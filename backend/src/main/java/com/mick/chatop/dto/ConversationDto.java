@@ -0,0 +1,32 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO d'une conversation de la boîte de réception.
+ *
+ * Construit directement par projection JPQL depuis la table {@code conversations}.
+ *
+ * @param id            Identifiant de la conversation
+ * @param rentalId      Identifiant de l'annonce (exposé sous {@code rental_id})
+ * @param userId        Identifiant de l'expéditeur (exposé sous {@code user_id})
+ * @param lastMessage   Extrait du dernier message (exposé sous {@code last_message})
+ * @param lastMessageAt Date du dernier message (exposée sous {@code last_message_at})
+ * @param unreadCount   Nombre de messages non lus (exposé sous {@code unread_count})
+ */
+public record ConversationDto(
+        Integer id,
+        @JsonProperty("rental_id")
+        Integer rentalId,
+        @JsonProperty("user_id")
+        Integer userId,
+        @JsonProperty("last_message")
+        String lastMessage,
+        @JsonProperty("last_message_at")
+        LocalDateTime lastMessageAt,
+        @JsonProperty("unread_count")
+        int unreadCount
+) {
+}
@@ -0,0 +1,29 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de consultation d'un message.
+ *
+ * Ce record est construit directement par les requêtes JPQL (projection) :
+ * ni l'annonce ni l'expéditeur ne sont chargés, seuls leurs identifiants sont lus.
+ *
+ * @param id        Identifiant du message
+ * @param rentalId  Identifiant de l'annonce concernée (exposé sous {@code rental_id})
+ * @param userId    Identifiant de l'expéditeur (exposé sous {@code user_id})
+ * @param message   Contenu du message
+ * @param createdAt Date d'envoi du message (exposée sous {@code created_at})
+ */
+public record MessageDto(
+        Integer id,
+        @JsonProperty("rental_id")
+        Integer rentalId,
+        @JsonProperty("user_id")
+        Integer userId,
+        String message,
+        @JsonProperty("created_at")
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,18 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Page de messages, triés du plus récent au plus ancien.
+ *
+ * @param messages   Messages de la page
+ * @param nextCursor Curseur à transmettre pour obtenir la page suivante ({@code null} s'il n'y en a pas)
+ */
+public record MessagePageDto(
+        List<MessageDto> messages,
+        @JsonProperty("next_cursor")
+        String nextCursor
+) {
+}
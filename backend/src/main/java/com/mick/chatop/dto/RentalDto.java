@@ -19,6 +19,8 @@ import java.time.LocalDateTime;
  * @param ownerId     Identifiant du propriétaire (exposé sous forme de {@code owner_id} en JSON)
  * @param createdAt   Date de création de l’annonce
  * @param updatedAt   Date de dernière mise à jour de l’annonce
+ * @param version     Version de l’annonce, à renvoyer dans l’en-tête {@code If-Match} lors d’une mise à jour
+ * @param views       Nombre de consultations (écrit par lots : en retard de quelques secondes au plus)
  */
 public record RentalDto(
         Integer id,
@@ -30,6 +32,8 @@ public record RentalDto(
         @JsonProperty("owner_id")
         Integer ownerId,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        Long version,
+        Long views
 ) {
 }
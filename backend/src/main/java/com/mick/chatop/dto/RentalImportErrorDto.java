@@ -0,0 +1,13 @@
+package com.mick.chatop.dto;
+
+/**
+ * Erreur d'import d'une ligne.
+ *
+ * @param line   Numéro de la ligne dans le fichier
+ * @param reason Motif du rejet
+ */
+public record RentalImportErrorDto(
+        long line,
+        String reason
+) {
+}
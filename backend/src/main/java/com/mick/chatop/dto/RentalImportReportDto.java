@@ -0,0 +1,22 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Rapport d'un import d'annonces.
+ *
+ * @param imported        Nombre d'annonces créées
+ * @param rejected        Nombre de lignes rejetées
+ * @param errors          Détail des premières lignes rejetées
+ * @param errorsTruncated {@code true} si toutes les erreurs ne sont pas détaillées (exposé sous {@code errors_truncated})
+ */
+public record RentalImportReportDto(
+        long imported,
+        long rejected,
+        List<RentalImportErrorDto> errors,
+        @JsonProperty("errors_truncated")
+        boolean errorsTruncated
+) {
+}
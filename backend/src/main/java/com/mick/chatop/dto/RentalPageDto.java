@@ -0,0 +1,18 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Page d'annonces, triées de la plus récente à la plus ancienne.
+ *
+ * @param rentals    Annonces de la page
+ * @param nextCursor Curseur à transmettre pour obtenir la page suivante ({@code null} s'il n'y en a pas)
+ */
+public record RentalPageDto(
+        List<RentalDto> rentals,
+        @JsonProperty("next_cursor")
+        String nextCursor
+) {
+}
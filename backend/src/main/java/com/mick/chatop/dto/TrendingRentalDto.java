@@ -0,0 +1,16 @@
+package com.mick.chatop.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Annonce du classement des plus contactées.
+ *
+ * @param rentalId Identifiant de l'annonce (exposé sous forme de {@code rental_id} en JSON)
+ * @param messages Nombre de messages reçus pendant la fenêtre
+ */
+public record TrendingRentalDto(
+        @JsonProperty("rental_id")
+        Integer rentalId,
+        long messages
+) {
+}
@@ -0,0 +1,15 @@
+package com.mick.chatop.dto;
+
+import java.util.List;
+
+/**
+ * Classement des annonces les plus contactées sur une fenêtre glissante.
+ *
+ * @param window  Fenêtre du classement ({@code 24h} ou {@code 7d})
+ * @param rentals Annonces, de la plus contactée à la moins contactée
+ */
+public record TrendingRentalsDto(
+        String window,
+        List<TrendingRentalDto> rentals
+) {
+}
@@ -0,0 +1,13 @@
+package com.mick.chatop.dto;
+
+/**
+ * Résumé d'un utilisateur (identifiant et nom), construit par projection JPQL.
+ *
+ * @param id   Identifiant de l'utilisateur
+ * @param name Nom affiché de l'utilisateur
+ */
+public record UserNameDto(
+        Integer id,
+        String name
+) {
+}
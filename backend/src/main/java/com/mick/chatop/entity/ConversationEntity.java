@@ -0,0 +1,95 @@
+package com.mick.chatop.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Cette classe représente une conversation : l'ensemble des messages d'un expéditeur sur une annonce.
+// C'est un modèle de lecture, tenu à jour par l'écrivain de messages dans la transaction de chaque lot.
+// L'index (owner_id, last_message_at, id) sert la boîte de réception d'un propriétaire.
+@Entity
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversations_rental_user", columnNames = {"rental_id", "user_id"}),
+        indexes = @Index(name = "idx_conversations_owner_last", columnList = "owner_id, last_message_at, id"))
+public class ConversationEntity {
+
+    /**
+     * Longueur maximale de l'extrait du dernier message.
+     */
+    public static final int SNIPPET_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rental_id", referencedColumnName = "id", nullable = false)
+    private RentalEntity rental;
+
+    // Expéditeur des messages
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    private UserEntity user;
+
+    // Propriétaire de l'annonce, destinataire des messages
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", referencedColumnName = "id", nullable = false)
+    private UserEntity owner;
+
+    @Column(nullable = false, length = SNIPPET_LENGTH)
+    private String last_message;
+
+    @Column(nullable = false)
+    private LocalDateTime last_message_at;
+
+    @Column(nullable = false)
+    private int unread_count;
+
+    @Column(nullable = false)
+    private LocalDateTime created_at;
+
+    @Column(nullable = false)
+    private LocalDateTime updated_at;
+
+    public ConversationEntity() {
+        // Constructeur par défaut requis par JPA
+    }
+
+    // Getters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public RentalEntity getRental() {
+        return rental;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public UserEntity getOwner() {
+        return owner;
+    }
+
+    public String getLast_message() {
+        return last_message;
+    }
+
+    public LocalDateTime getLast_message_at() {
+        return last_message_at;
+    }
+
+    public int getUnread_count() {
+        return unread_count;
+    }
+
+    public LocalDateTime getCreated_at() {
+        return created_at;
+    }
+
+    public LocalDateTime getUpdated_at() {
+        return updated_at;
+    }
+}
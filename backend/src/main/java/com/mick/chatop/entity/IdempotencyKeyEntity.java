@@ -0,0 +1,54 @@
+package com.mick.chatop.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Cette classe représente une clé d'idempotence partagée entre instances (registre JDBC).
+// Tant que la requête d'origine est en cours, status est nul ; la réponse est ensuite enregistrée
+// pour être rejouée aux requêtes dupliquées jusqu'à expires_at.
+// Les lectures et écritures passent par JdbcIdempotencyStore ; l'entité ne sert qu'à décrire la table.
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at"))
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String key;
+
+    @Column
+    private Integer status;
+
+    @Column(length = 255)
+    private String content_type;
+
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] body;
+
+    // Empreinte du corps de la requête d'origine (V5)
+    @Column(length = 64, columnDefinition = "CHAR(64)")
+    private String request_hash;
+
+    @Column(nullable = false)
+    private LocalDateTime created_at;
+
+    @Column(nullable = false)
+    private LocalDateTime expires_at;
+
+    public IdempotencyKeyEntity() {
+        // Constructeur par défaut requis par JPA
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getExpires_at() {
+        return expires_at;
+    }
+}
@@ -5,8 +5,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 // Cette classe représente une entité de message dans l'application.
+// Les index composites servent la pagination par annonce et par expéditeur (created_at, id).
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_rental_created", columnList = "rental_id, created_at, id"),
+        @Index(name = "idx_messages_user_created", columnList = "user_id, created_at, id")
+})
 public class MessageEntity {
 
     @Id
@@ -16,11 +20,11 @@ public class MessageEntity {
     @Column(nullable = false, length = 2000)
     private String message;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
     private UserEntity user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rental_id", referencedColumnName = "id", nullable = false)
     private RentalEntity rental;
 
@@ -1,12 +1,19 @@
 package com.mick.chatop.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 
 // Cette classe représente une entité de location dans l'application.
+// La colonne version sert au verrouillage optimiste : une mise à jour concurrente échoue au lieu d'écraser l'autre.
+// Le schéma et ses index sont créés par les migrations Flyway (db/migration) ; les index sont rappelés ici.
 @Entity
-@Table(name="rentals")
+@Table(name = "rentals", indexes = {
+        @Index(name = "idx_rentals_owner_created", columnList = "owner_id, created_at, id"),
+        @Index(name = "idx_rentals_updated", columnList = "updated_at")
+})
 public class RentalEntity {
 
     @Id
@@ -38,6 +45,15 @@ public class RentalEntity {
     @Column(nullable = false)
     private LocalDateTime updated_at;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Nombre de vues déjà écrites dans rental_stats (lecture seule) : une ligne au plus, lue par sa clé primaire
+    @Formula("coalesce((select s.views from rental_stats s where s.rental_id = id), 0)")
+    private Long views;
+
     public RentalEntity() {
     }
 
@@ -140,4 +156,12 @@ public class RentalEntity {
     public void setUpdated_at(LocalDateTime updated_at) {
         this.updated_at = updated_at;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getViews() {
+        return views;
+    }
 }
@@ -8,7 +8,7 @@ import java.time.Instant;
  * Contient des informations sur le token, l'utilisateur associé, et sa validité.
  */
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = @Index(name = "idx_tokens_user_valid", columnList = "user_id, valid"))
 public class TokenEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
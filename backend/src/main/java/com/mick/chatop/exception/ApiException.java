@@ -0,0 +1,44 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception métier typée, convertie en réponse JSON par {@link GlobalExceptionHandler}.
+ *
+ * Ces exceptions servent au contrôle de flux (ressource absente, requête invalide, ...) :
+ * elles ne capturent donc pas de pile d'appels, dont le coût domine sinon celui de la réponse.
+ * Les erreurs fixes sont exposées sous forme d'instances partagées dont le corps est pré-sérialisé.
+ */
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final byte[] body;
+
+    /**
+     * Erreur dont le message varie : le corps est sérialisé à la demande.
+     */
+    protected ApiException(HttpStatus status, String reason) {
+        this(status, reason, false);
+    }
+
+    /**
+     * @param preSerialized {@code true} pour sérialiser le corps une fois pour toutes
+     *                      (instances partagées d'erreurs fixes).
+     */
+    protected ApiException(HttpStatus status, String reason, boolean preSerialized) {
+        super(reason, null, false, false);
+        this.status = status;
+        this.body = preSerialized ? ErrorBodies.json(status, reason) : null;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Le corps JSON de la réponse d'erreur.
+     */
+    public byte[] getBody() {
+        return body != null ? body : ErrorBodies.json(status, getMessage());
+    }
+}
@@ -0,0 +1,13 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Requête invalide (400).
+ */
+public class BadRequestException extends ApiException {
+
+    public BadRequestException(String reason) {
+        super(HttpStatus.BAD_REQUEST, reason);
+    }
+}
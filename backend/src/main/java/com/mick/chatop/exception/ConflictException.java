@@ -0,0 +1,13 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Conflit avec l'état courant de la ressource (409).
+ */
+public class ConflictException extends ApiException {
+
+    public ConflictException(String reason) {
+        super(HttpStatus.CONFLICT, reason);
+    }
+}
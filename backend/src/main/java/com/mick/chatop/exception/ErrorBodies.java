@@ -0,0 +1,56 @@
+package com.mick.chatop.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Corps JSON des réponses d'erreur, au format de {@link com.mick.chatop.dto.ErrorResponse}.
+ *
+ * Les erreurs fixes (401, 404, 429, ...) sont sérialisées une seule fois au chargement de la classe
+ * et réécrites telles quelles : une réponse d'erreur ne coûte alors ni allocation d'objet
+ * ni passage par Jackson.
+ */
+public final class ErrorBodies {
+
+    public static final byte[] NOT_FOUND = json(HttpStatus.NOT_FOUND, "Resource not found");
+    public static final byte[] MALFORMED_REQUEST = json(HttpStatus.BAD_REQUEST, "Malformed request body");
+    public static final byte[] TOKEN_INVALID = json(HttpStatus.UNAUTHORIZED, "Token invalid or revoked");
+    public static final byte[] TOO_MANY_REQUESTS = json(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later");
+    public static final byte[] INTERNAL_ERROR = json(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+
+    private ErrorBodies() {
+    }
+
+    /**
+     * Sérialise une erreur sans passer par un {@code ObjectMapper}.
+     *
+     * @param status Statut HTTP de l'erreur.
+     * @param reason Message lisible décrivant l'erreur.
+     * @return Le corps JSON encodé en UTF-8.
+     */
+    public static byte[] json(HttpStatus status, String reason) {
+        String escaped = new String(JsonStringEncoder.getInstance().quoteAsString(reason == null ? "" : reason));
+        return ("{\"error\":\"" + status.name() + "\",\"status\":" + status.value()
+                + ",\"reason\":\"" + escaped + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Écrit directement un corps d'erreur pré-sérialisé dans la réponse (utilisé par les filtres).
+     *
+     * @param response La réponse HTTP.
+     * @param status   Statut HTTP à renvoyer.
+     * @param body     Corps JSON pré-sérialisé.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public static void write(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
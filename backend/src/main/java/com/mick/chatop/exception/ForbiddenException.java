@@ -0,0 +1,26 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Accès refusé à une ressource appartenant à un autre utilisateur (403).
+ */
+public class ForbiddenException extends ApiException {
+
+    private static final ForbiddenException ACCESS_DENIED = new ForbiddenException("Access denied", true);
+
+    public ForbiddenException(String reason) {
+        super(HttpStatus.FORBIDDEN, reason);
+    }
+
+    private ForbiddenException(String reason, boolean preSerialized) {
+        super(HttpStatus.FORBIDDEN, reason, preSerialized);
+    }
+
+    /**
+     * @return L'instance partagée "Access denied".
+     */
+    public static ForbiddenException accessDenied() {
+        return ACCESS_DENIED;
+    }
+}
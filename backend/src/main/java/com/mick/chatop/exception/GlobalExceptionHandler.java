@@ -0,0 +1,117 @@
+package com.mick.chatop.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+/**
+ * Gestion centralisée des erreurs de l'API.
+ *
+ * Toutes les réponses d'erreur sont renvoyées au format {@link com.mick.chatop.dto.ErrorResponse},
+ * écrites directement en octets : les contrôleurs n'ont plus à intercepter d'exceptions
+ * ni à reconstruire d'objets d'erreur.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private static final byte[] CONCURRENT_UPDATE =
+            ErrorBodies.json(HttpStatus.CONFLICT, "Resource was modified concurrently, reload it and retry");
+
+    /**
+     * Erreurs métier typées (404, 400, 401, ...).
+     */
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<byte[]> handleApiException(ApiException e) {
+        return body(e.getStatus(), e.getBody());
+    }
+
+    /**
+     * Erreurs de validation des DTO ({@code @RequestBody} et {@code @ModelAttribute}).
+     * {@code MethodArgumentNotValidException} hérite de {@link BindException}.
+     */
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<byte[]> handleValidation(BindException e) {
+        String errorMessage = e.getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .reduce((e1, e2) -> e1 + "; " + e2)
+                .orElse("Validation error");
+        return body(HttpStatus.BAD_REQUEST, ErrorBodies.json(HttpStatus.BAD_REQUEST, errorMessage));
+    }
+
+    /**
+     * Échec d'authentification lors de la connexion (identifiants invalides).
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<byte[]> handleAuthentication(AuthenticationException e) {
+        return body(HttpStatus.UNAUTHORIZED,
+                ErrorBodies.json(HttpStatus.UNAUTHORIZED, "Authentication failed: " + e.getMessage()));
+    }
+
+    /**
+     * Arguments refusés par la couche métier (image invalide, email déjà utilisé, ...).
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgument(IllegalArgumentException e) {
+        return body(HttpStatus.BAD_REQUEST, ErrorBodies.json(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * Route inconnue : cas le plus fréquent sous un trafic de scan, renvoyé avec un corps pré-sérialisé.
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<byte[]> handleNoResource(NoResourceFoundException e) {
+        return body(HttpStatus.NOT_FOUND, ErrorBodies.NOT_FOUND);
+    }
+
+    /**
+     * Corps de requête illisible (JSON mal formé, type incorrect).
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleUnreadable(HttpMessageNotReadableException e) {
+        return body(HttpStatus.BAD_REQUEST, ErrorBodies.MALFORMED_REQUEST);
+    }
+
+    /**
+     * Mise à jour concurrente détectée par le verrouillage optimiste ({@code @Version}) :
+     * le client doit relire la ressource avant de réessayer.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLock(OptimisticLockingFailureException e) {
+        return body(HttpStatus.CONFLICT, CONCURRENT_UPDATE);
+    }
+
+    /**
+     * Toute autre erreur. Les exceptions standard de Spring MVC (méthode non supportée,
+     * en-tête manquant, ...) conservent leur statut ; les autres sont journalisées
+     * et renvoyées en 500 sans exposer leur détail au client.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleUnexpected(Exception e) {
+        if (e instanceof org.springframework.web.ErrorResponse errorResponse) {
+            HttpStatus status = HttpStatus.resolve(errorResponse.getStatusCode().value());
+            if (status != null) {
+                return body(status, ErrorBodies.json(status, errorResponse.getBody().getDetail()));
+            }
+        }
+        logger.error("Erreur inattendue", e);
+        return body(HttpStatus.INTERNAL_SERVER_ERROR, ErrorBodies.INTERNAL_ERROR);
+    }
+
+    private static ResponseEntity<byte[]> body(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
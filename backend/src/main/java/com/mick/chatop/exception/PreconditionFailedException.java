@@ -0,0 +1,27 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Précondition de la requête non satisfaite (412), par exemple un {@code If-Match} périmé.
+ */
+public class PreconditionFailedException extends ApiException {
+
+    private static final PreconditionFailedException STALE_VERSION =
+            new PreconditionFailedException("Resource has been modified, reload it and retry", true);
+
+    public PreconditionFailedException(String reason) {
+        super(HttpStatus.PRECONDITION_FAILED, reason);
+    }
+
+    private PreconditionFailedException(String reason, boolean preSerialized) {
+        super(HttpStatus.PRECONDITION_FAILED, reason, preSerialized);
+    }
+
+    /**
+     * @return L'instance partagée signalant une version périmée.
+     */
+    public static PreconditionFailedException staleVersion() {
+        return STALE_VERSION;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Ressource introuvable (404).
+ */
+public class ResourceNotFoundException extends ApiException {
+
+    private static final ResourceNotFoundException RENTAL = new ResourceNotFoundException("Rental not found", true);
+    private static final ResourceNotFoundException USER = new ResourceNotFoundException("User not found", true);
+    private static final ResourceNotFoundException CONVERSATION = new ResourceNotFoundException("Conversation not found", true);
+
+    public ResourceNotFoundException(String reason) {
+        super(HttpStatus.NOT_FOUND, reason);
+    }
+
+    private ResourceNotFoundException(String reason, boolean preSerialized) {
+        super(HttpStatus.NOT_FOUND, reason, preSerialized);
+    }
+
+    /**
+     * @return L'instance partagée "Rental not found".
+     */
+    public static ResourceNotFoundException rental() {
+        return RENTAL;
+    }
+
+    /**
+     * @return L'instance partagée "User not found".
+     */
+    public static ResourceNotFoundException user() {
+        return USER;
+    }
+
+    /**
+     * @return L'instance partagée "Conversation not found".
+     */
+    public static ResourceNotFoundException conversation() {
+        return CONVERSATION;
+    }
+}
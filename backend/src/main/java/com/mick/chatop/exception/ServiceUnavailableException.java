@@ -0,0 +1,13 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Service temporairement indisponible (503), par exemple lorsqu'une file d'écriture est saturée.
+ */
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException(String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+}
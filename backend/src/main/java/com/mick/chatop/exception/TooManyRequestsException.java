@@ -0,0 +1,13 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Trop de requêtes ou de connexions simultanées pour un même utilisateur (429).
+ */
+public class TooManyRequestsException extends ApiException {
+
+    public TooManyRequestsException(String reason) {
+        super(HttpStatus.TOO_MANY_REQUESTS, reason);
+    }
+}
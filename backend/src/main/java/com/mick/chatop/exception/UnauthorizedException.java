@@ -0,0 +1,26 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Utilisateur non authentifié ou inconnu (401).
+ */
+public class UnauthorizedException extends ApiException {
+
+    private static final UnauthorizedException UNAUTHENTICATED = new UnauthorizedException("Unauthenticated user", true);
+
+    public UnauthorizedException(String reason) {
+        super(HttpStatus.UNAUTHORIZED, reason);
+    }
+
+    private UnauthorizedException(String reason, boolean preSerialized) {
+        super(HttpStatus.UNAUTHORIZED, reason, preSerialized);
+    }
+
+    /**
+     * @return L'instance partagée "Unauthenticated user".
+     */
+    public static UnauthorizedException unauthenticated() {
+        return UNAUTHENTICATED;
+    }
+}
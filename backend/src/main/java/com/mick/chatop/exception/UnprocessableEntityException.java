@@ -0,0 +1,17 @@
+package com.mick.chatop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Requête bien formée mais incohérente avec une requête précédente (422).
+ */
+public class UnprocessableEntityException extends ApiException {
+
+    public UnprocessableEntityException(String reason) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, reason);
+    }
+
+    public static UnprocessableEntityException idempotencyKeyReused() {
+        return new UnprocessableEntityException("Idempotency-Key was already used with a different request body");
+    }
+}
@@ -0,0 +1,38 @@
+package com.mick.chatop.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Registre des clés d'idempotence ({@code Idempotency-Key}).
+ *
+ * Une clé passe par deux états : "en cours" après {@link #begin}, puis "terminée" après
+ * {@link #complete}. Une requête abandonnée ({@link #abandon}) libère sa clé, qui peut alors
+ * être reprise par une nouvelle tentative.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Réserve une clé, ou attend la fin de la requête qui la détient déjà.
+     *
+     * @param key         Clé d'idempotence, déjà qualifiée par l'utilisateur et la route.
+     * @param requestHash Empreinte du corps de la requête, comparée à celle de la requête d'origine.
+     * @param wait        Durée maximale d'attente d'une requête en cours portant la même clé.
+     * @return Vide si l'appelant détient désormais la clé et doit traiter la requête ;
+     *         sinon la réponse enregistrée, à rejouer.
+     * @throws com.mick.chatop.exception.UnprocessableEntityException si la clé a été utilisée avec un autre corps.
+     * @throws com.mick.chatop.exception.ConflictException            si la requête d'origine est toujours en cours.
+     * @throws com.mick.chatop.exception.ServiceUnavailableException  si le registre est saturé.
+     */
+    Optional<StoredResponse> begin(String key, String requestHash, Duration wait);
+
+    /**
+     * Enregistre la réponse d'une requête terminée et débloque les requêtes en attente.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Libère une clé dont la requête a échoué : sa réponse n'est pas rejouée.
+     */
+    void abandon(String key);
+}
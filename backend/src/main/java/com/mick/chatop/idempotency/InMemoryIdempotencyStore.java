@@ -0,0 +1,129 @@
+package com.mick.chatop.idempotency;
+
+import com.mick.chatop.exception.ConflictException;
+import com.mick.chatop.exception.ServiceUnavailableException;
+import com.mick.chatop.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Registre d'idempotence en mémoire, borné, adapté à une instance unique.
+ *
+ * Chaque clé est associée à un {@link CompletableFuture} : les requêtes dupliquées concurrentes
+ * attendent la fin de la première, puis reçoivent sa réponse. Les réponses terminées sont conservées
+ * pendant {@code chatop.idempotency.ttl} ; au-delà de {@code chatop.idempotency.max-entries} clés
+ * non expirées, les nouvelles clés sont refusées plutôt que d'évincer des réponses encore valides.
+ */
+@Component
+@ConditionalOnProperty(name = "chatop.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public InMemoryIdempotencyStore(@Value("${chatop.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${chatop.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Optional<StoredResponse> begin(String key, String requestHash, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Entry existing = entries.get(key);
+            if (existing == null || existing.isExpired(System.nanoTime())) {
+                if (entries.size() >= maxEntries && evictExpired() == 0 && entries.size() >= maxEntries) {
+                    throw new ServiceUnavailableException("Too many idempotent requests, please retry later");
+                }
+                Entry mine = new Entry(requestHash);
+                boolean reserved = existing == null
+                        ? entries.putIfAbsent(key, mine) == null
+                        : entries.replace(key, existing, mine);
+                if (reserved) {
+                    return Optional.empty();
+                }
+                continue;
+            }
+            if (!existing.requestHash.equals(requestHash)) {
+                throw UnprocessableEntityException.idempotencyKeyReused();
+            }
+
+            try {
+                long remaining = deadline - System.nanoTime();
+                return Optional.of(existing.response.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            } catch (ExecutionException | CancellationException e) {
+                // La requête d'origine a été abandonnée : la clé est libérée, on tente de la reprendre
+                if (System.nanoTime() - deadline > 0) {
+                    throw new ConflictException("A request with this Idempotency-Key is still in progress");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.expiresAt = System.nanoTime() + ttlNanos;
+            entry.response.complete(response);
+        }
+    }
+
+    @Override
+    public void abandon(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.response.cancel(false);
+        }
+    }
+
+    /**
+     * Retire les réponses expirées.
+     *
+     * @return Le nombre d'entrées retirées.
+     */
+    @Scheduled(fixedDelayString = "${chatop.idempotency.eviction-interval-ms:60000}")
+    public int evictExpired() {
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        return Math.max(0, before - entries.size());
+    }
+
+    /**
+     * Entrée du registre. Une requête en cours n'expire pas : elle est libérée par
+     * {@link #complete} ou {@link #abandon}, appelés dans un bloc {@code finally} par le filtre.
+     */
+    private static final class Entry {
+
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private final String requestHash;
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired(long now) {
+            return response.isDone() && now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mick.chatop.idempotency;
+
+import com.mick.chatop.exception.ConflictException;
+import com.mick.chatop.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre d'idempotence en base, partagé entre plusieurs instances de l'API
+ * ({@code chatop.idempotency.store=jdbc}).
+ *
+ * La réservation repose sur la clé primaire : seule l'instance dont l'insertion réussit traite
+ * la requête. Les requêtes dupliquées interrogent la ligne à intervalle court jusqu'à ce que
+ * la réponse soit enregistrée.
+ *
+ * Une réservation expire après {@code chatop.idempotency.in-flight-timeout} ; tant que la requête est en cours,
+ * l'instance qui la traite repousse cette échéance toutes les {@code in-flight-refresh-interval-ms}. Un envoi
+ * lent (image volumineuse) garde donc sa clé, et seule la réservation d'une instance disparue peut être reprise.
+ */
+@Component
+@ConditionalOnProperty(name = "chatop.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT status, content_type, body, request_hash, expires_at FROM idempotency_keys WHERE idempotency_key = ?";
+    private static final String REFRESH_SQL =
+            "UPDATE idempotency_keys SET expires_at = ? WHERE idempotency_key = ? AND status IS NULL";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?, expires_at = ? WHERE idempotency_key = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    // Clés réservées par cette instance et dont la requête est en cours
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${chatop.idempotency.ttl:24h}") Duration ttl,
+                                @Value("${chatop.idempotency.in-flight-timeout:1m}") Duration inFlightTimeout,
+                                @Value("${chatop.idempotency.in-flight-refresh-interval-ms:15000}") long refreshIntervalMs) {
+        if (Duration.ofMillis(refreshIntervalMs).compareTo(inFlightTimeout) >= 0) {
+            throw new IllegalArgumentException("chatop.idempotency.in-flight-refresh-interval-ms must be shorter than in-flight-timeout");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    @Override
+    public Optional<StoredResponse> begin(String key, String requestHash, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update(INSERT_SQL, key, requestHash,
+                        Timestamp.valueOf(now), Timestamp.valueOf(now.plus(inFlightTimeout)));
+                inFlight.add(key);
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                // Clé déjà réservée : on lit son état
+            }
+
+            List<Row> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> new Row(
+                    (Integer) rs.getObject("status"),
+                    rs.getString("content_type"),
+                    rs.getBytes("body"),
+                    rs.getString("request_hash"),
+                    rs.getTimestamp("expires_at").toLocalDateTime()), key);
+
+            if (!rows.isEmpty()) {
+                Row row = rows.getFirst();
+                if (row.expiresAt().isBefore(now)) {
+                    // Réservation ou réponse expirée : on la supprime avant de réessayer
+                    jdbcTemplate.update(DELETE_EXPIRED_SQL, key, Timestamp.valueOf(now));
+                    continue;
+                }
+                // Clés enregistrées avant la V5 : pas d'empreinte à comparer
+                if (row.requestHash() != null && !row.requestHash().equals(requestHash)) {
+                    throw UnprocessableEntityException.idempotencyKeyReused();
+                }
+                if (row.status() != null) {
+                    return Optional.of(new StoredResponse(row.status(), row.contentType(), row.body()));
+                }
+            }
+
+            if (System.nanoTime() - deadline > 0) {
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        inFlight.remove(key);
+        jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(), response.body(),
+                Timestamp.valueOf(LocalDateTime.now().plus(ttl)), key);
+    }
+
+    @Override
+    public void abandon(String key) {
+        inFlight.remove(key);
+        jdbcTemplate.update(DELETE_SQL, key);
+    }
+
+    /**
+     * Repousse l'échéance des réservations en cours sur cette instance.
+     */
+    @Scheduled(fixedDelayString = "${chatop.idempotency.in-flight-refresh-interval-ms:15000}")
+    public void refreshInFlight() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        Timestamp expiresAt = Timestamp.valueOf(LocalDateTime.now().plus(inFlightTimeout));
+        List<Object[]> keys = inFlight.stream().map(key -> new Object[]{expiresAt, key}).toList();
+        jdbcTemplate.batchUpdate(REFRESH_SQL, keys);
+    }
+
+    /**
+     * Purge les clés expirées, en petites tranches pour ne pas verrouiller la table longtemps.
+     */
+    @Scheduled(fixedDelayString = "${chatop.idempotency.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        while (jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ? LIMIT 1000", now) == 1000) {
+            // On continue tant que des tranches complètes sont supprimées
+        }
+    }
+
+    private record Row(Integer status, String contentType, byte[] body, String requestHash, LocalDateTime expiresAt) {
+    }
+}
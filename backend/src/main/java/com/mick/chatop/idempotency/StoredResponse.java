@@ -0,0 +1,11 @@
+package com.mick.chatop.idempotency;
+
+/**
+ * Réponse enregistrée d'une requête idempotente, rejouée telle quelle aux requêtes dupliquées.
+ *
+ * @param status      Statut HTTP
+ * @param contentType Type de contenu (peut être {@code null})
+ * @param body        Corps de la réponse
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
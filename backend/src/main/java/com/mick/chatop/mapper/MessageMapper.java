@@ -1,29 +1,34 @@
 package com.mick.chatop.mapper;
 
 import com.mick.chatop.dto.MessageRequestDto;
-import com.mick.chatop.entity.MessageEntity;
-import com.mick.chatop.entity.RentalEntity;
-import com.mick.chatop.entity.UserEntity;
+import com.mick.chatop.messaging.PendingMessage;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 
 /**
  * Mapper permettant de convertir les objets liés aux messages
- * entre les couches DTO et entité.
+ * entre les couches DTO et persistance.
  */
 @Component
 public class MessageMapper {
 
     /**
-     * Convertit une requête de message (DTO) en entité {@link MessageEntity}.
+     * Convertit une requête de message (DTO) en message à écrire par lots.
      *
-     * @param rental              L'entité de location associée au message.
-     * @param user                L'utilisateur auteur du message.
-     * @param messageRequestDto   Le DTO contenant le contenu du message.
-     * @return Une nouvelle instance de {@link MessageEntity} construite à partir des données fournies.
+     * @param messageRequestDto   Le DTO contenant l'annonce, l'expéditeur et le contenu du message.
+     * @param ownerId             Le propriétaire de l'annonce, destinataire du message.
+     * @param now                 Date de création du message.
+     * @return Un nouveau {@link PendingMessage} construit à partir des données fournies.
      */
-    public MessageEntity toEntity(RentalEntity rental, UserEntity user,
-                                  MessageRequestDto messageRequestDto) {
-        return new MessageEntity(rental, user, messageRequestDto.message());
+    public PendingMessage toPendingMessage(MessageRequestDto messageRequestDto, Integer ownerId, LocalDateTime now) {
+        return new PendingMessage(
+                messageRequestDto.rentalId(),
+                ownerId,
+                messageRequestDto.userId(),
+                messageRequestDto.message(),
+                now
+        );
     }
 }
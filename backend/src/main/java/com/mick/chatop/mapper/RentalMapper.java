@@ -29,7 +29,9 @@ public class RentalMapper {
                 rentalEntity.getPicture(),
                 rentalEntity.getOwner().getId(),
                 rentalEntity.getCreated_at(),
-                rentalEntity.getUpdated_at()
+                rentalEntity.getUpdated_at(),
+                rentalEntity.getVersion(),
+                rentalEntity.getViews() != null ? rentalEntity.getViews() : 0L
         );
     }
 
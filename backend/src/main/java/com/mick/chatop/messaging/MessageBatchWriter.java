@@ -0,0 +1,299 @@
+package com.mick.chatop.messaging;
+
+import com.mick.chatop.entity.ConversationEntity;
+import com.mick.chatop.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écrivain de messages par lots ("group commit").
+ *
+ * Les messages validés sont placés dans une file bornée ; un ou plusieurs threads écrivains
+ * vident la file par lots et les insèrent avec un batch JDBC dans une seule transaction.
+ * Le {@link CompletableFuture} de chaque message n'est complété qu'après le commit de son lot :
+ * un client ne reçoit donc une réponse positive que lorsque son message est durablement enregistré.
+ *
+ * Plus la concurrence augmente, plus les lots grossissent : le nombre d'allers-retours
+ * et de commits par message diminue au lieu de limiter le débit.
+ *
+ * Dans la même transaction, la conversation (annonce, expéditeur) de chaque message est créée
+ * ou mise à jour (extrait du dernier message, compteur de non-lus) : la boîte de réception
+ * ne nécessite ainsi aucune agrégation à la lecture.
+ *
+ * Une fois les expéditeurs débloqués, un {@link MessageCreatedEvent} est publié pour chaque message
+ * (notifications temps réel, compteurs, ...), sans rallonger la réponse du POST.
+ */
+@Component
+public class MessageBatchWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBatchWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO messages (rental_id, user_id, message, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * L'extrait et la date ne sont remplacés que si le message est plus récent que le dernier connu
+     * (les affectations sont évaluées dans l'ordre : last_message avant last_message_at).
+     */
+    private static final String UPSERT_CONVERSATION_SQL = """
+            INSERT INTO conversations (rental_id, user_id, owner_id, last_message, last_message_at, unread_count, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 1, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                last_message = CASE WHEN VALUES(last_message_at) >= last_message_at THEN VALUES(last_message) ELSE last_message END,
+                last_message_at = GREATEST(last_message_at, VALUES(last_message_at)),
+                unread_count = unread_count + 1,
+                updated_at = VALUES(updated_at)""";
+
+    private static final Comparator<PendingMessage> CONVERSATION_ORDER =
+            Comparator.comparing(PendingMessage::rentalId).thenComparing(PendingMessage::userId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int batchSize;
+    private final int writerThreads;
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public MessageBatchWriter(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${chatop.messages.queue-capacity:10000}") int queueCapacity,
+                              @Value("${chatop.messages.batch-size:200}") int batchSize,
+                              @Value("${chatop.messages.writer-threads:2}") int writerThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writerThreads = writerThreads;
+    }
+
+    /**
+     * Place un message dans la file d'écriture.
+     *
+     * @param pendingMessage Message validé à enregistrer.
+     * @return Un futur complété après le commit du lot contenant le message.
+     * @throws ServiceUnavailableException Si la file est pleine ou l'écrivain arrêté.
+     */
+    public CompletableFuture<Void> submit(PendingMessage pendingMessage) {
+        if (!running) {
+            throw new ServiceUnavailableException("Message writer is not running");
+        }
+        if (!queue.offer(pendingMessage)) {
+            throw new ServiceUnavailableException("Too many messages in progress, please retry later");
+        }
+        return pendingMessage.completion();
+    }
+
+    /**
+     * Retire un message de la file s'il n'a pas encore été pris par un écrivain.
+     *
+     * @param pendingMessage Message soumis par {@link #submit(PendingMessage)}.
+     * @return {@code true} si le message ne sera jamais écrit, {@code false} s'il est déjà en cours d'écriture.
+     */
+    public boolean withdraw(PendingMessage pendingMessage) {
+        return queue.remove(pendingMessage);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            writers.add(Thread.ofPlatform().name("message-writer-" + i).start(this::drainLoop));
+        }
+        logger.info("Écriture des messages par lots démarrée ({} thread(s), lots de {} max)", writerThreads, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Démarré avant et arrêté après le serveur web, afin de vider la file
+     * des requêtes encore en cours lors d'un arrêt.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insère un lot dans une seule transaction. En cas d'échec du lot (par exemple une annonce
+     * supprimée entre la validation et l'écriture), les messages sont réécrits un par un
+     * afin que seul le message fautif soit rejeté.
+     */
+    private void flush(List<PendingMessage> batch) {
+        List<Integer> ids;
+        try {
+            ids = transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                batch.getFirst().completion().completeExceptionally(batchFailure);
+                return;
+            }
+            logger.warn("Échec d'un lot de {} messages, écriture unitaire : {}", batch.size(), batchFailure.getMessage());
+            for (PendingMessage pending : batch) {
+                try {
+                    Integer id = transactionTemplate.execute(status -> insert(List.of(pending))).getFirst();
+                    pending.completion().complete(null);
+                    publish(pending, id);
+                } catch (RuntimeException e) {
+                    pending.completion().completeExceptionally(e);
+                }
+            }
+            return;
+        }
+
+        batch.forEach(pending -> pending.completion().complete(null));
+        for (int i = 0; i < batch.size(); i++) {
+            publish(batch.get(i), ids.get(i));
+        }
+    }
+
+    /**
+     * Insère le lot avec un batch JDBC, met à jour les conversations concernées
+     * et retourne les identifiants générés, dans l'ordre du lot.
+     */
+    private List<Integer> insert(List<PendingMessage> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingMessage pending = batch.get(i);
+                        Timestamp createdAt = Timestamp.valueOf(pending.createdAt());
+                        ps.setInt(1, pending.rentalId());
+                        ps.setInt(2, pending.userId());
+                        ps.setString(3, pending.message());
+                        ps.setTimestamp(4, createdAt);
+                        ps.setTimestamp(5, createdAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).intValue());
+        }
+
+        upsertConversations(batch);
+        return ids;
+    }
+
+    /**
+     * Les lignes sont verrouillées dans l'ordre (rental_id, user_id), identique pour tous les écrivains,
+     * afin d'éviter les interblocages entre deux lots touchant les mêmes conversations.
+     */
+    private void upsertConversations(List<PendingMessage> batch) {
+        List<PendingMessage> ordered = new ArrayList<>(batch);
+        ordered.sort(CONVERSATION_ORDER);
+        jdbcTemplate.batchUpdate(UPSERT_CONVERSATION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingMessage pending = ordered.get(i);
+                Timestamp createdAt = Timestamp.valueOf(pending.createdAt());
+                ps.setInt(1, pending.rentalId());
+                ps.setInt(2, pending.userId());
+                ps.setInt(3, pending.ownerId());
+                ps.setString(4, snippet(pending.message()));
+                ps.setTimestamp(5, createdAt);
+                ps.setTimestamp(6, createdAt);
+                ps.setTimestamp(7, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+    }
+
+    private static String snippet(String message) {
+        if (message.length() <= ConversationEntity.SNIPPET_LENGTH) {
+            return message;
+        }
+        int end = ConversationEntity.SNIPPET_LENGTH;
+        if (Character.isHighSurrogate(message.charAt(end - 1))) {
+            end--;
+        }
+        return message.substring(0, end);
+    }
+
+    /**
+     * Publie l'événement d'un message validé ; une erreur d'écouteur ne doit pas arrêter l'écrivain.
+     */
+    private void publish(PendingMessage pending, Integer id) {
+        try {
+            eventPublisher.publishEvent(pending.toEvent(id));
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la publication du message {} : {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mick.chatop.messaging;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié par le {@link MessageBatchWriter} après le commit d'un message.
+ *
+ * Les écouteurs sont exécutés sur le thread écrivain, après que l'expéditeur a reçu sa réponse :
+ * ils doivent rester non bloquants (simple dépôt dans une file, mise à jour en mémoire, ...).
+ *
+ * @param id        Identifiant généré du message
+ * @param rentalId  Identifiant de l'annonce concernée
+ * @param ownerId   Identifiant du propriétaire de l'annonce (destinataire du message)
+ * @param userId    Identifiant de l'expéditeur
+ * @param message   Contenu du message
+ * @param createdAt Date d'envoi du message
+ */
+public record MessageCreatedEvent(
+        Integer id,
+        Integer rentalId,
+        Integer ownerId,
+        Integer userId,
+        String message,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,36 @@
+package com.mick.chatop.messaging;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Message validé, en attente d'écriture par le {@link MessageBatchWriter}.
+ *
+ * @param rentalId   Identifiant de l'annonce concernée
+ * @param ownerId    Identifiant du propriétaire de l'annonce (destinataire)
+ * @param userId     Identifiant de l'expéditeur
+ * @param message    Contenu du message
+ * @param createdAt  Date de création (également utilisée comme date de mise à jour)
+ * @param completion Complété après le commit du lot contenant ce message
+ */
+public record PendingMessage(
+        Integer rentalId,
+        Integer ownerId,
+        Integer userId,
+        String message,
+        LocalDateTime createdAt,
+        CompletableFuture<Void> completion
+) {
+
+    public PendingMessage(Integer rentalId, Integer ownerId, Integer userId, String message, LocalDateTime createdAt) {
+        this(rentalId, ownerId, userId, message, createdAt, new CompletableFuture<>());
+    }
+
+    /**
+     * @param id Identifiant généré lors de l'insertion.
+     * @return L'événement à publier une fois le message validé en base.
+     */
+    public MessageCreatedEvent toEvent(Integer id) {
+        return new MessageCreatedEvent(id, rentalId, ownerId, userId, message, createdAt);
+    }
+}
@@ -0,0 +1,160 @@
+package com.mick.chatop.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Découpage du temps d'une requête par phase, restitué dans l'en-tête {@code Server-Timing}
+ * et dans une ligne de journal (voir {@link ServerTimingFilter}).
+ *
+ * La mesure n'est active que pour les requêtes ouvertes par le filtre : ailleurs (fonctionnalité désactivée,
+ * threads d'arrière-plan), {@link #current()} renvoie {@code null} et les points de mesure se limitent
+ * à la lecture d'un {@link ThreadLocal}.
+ *
+ * Les phases peuvent se recouvrir : le temps SQL ({@code db}) est aussi compté dans la recherche du token
+ * et dans l'exécution du contrôleur. Une instance n'est utilisée que par le thread de la requête.
+ */
+public final class ServerTiming {
+
+    /**
+     * Phases mesurées, dans l'ordre de l'en-tête.
+     */
+    public enum Phase {
+        TOKEN("token", "Token lookup"),
+        JWT("jwt", "JWT decode"),
+        DB("db", "SQL"),
+        APP("app", "Controller"),
+        JSON("json", "Serialization");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] durations = new long[PHASES.length];
+    private int statements;
+    private long statementStart;
+    private long handlerStart;
+    private boolean handlerTimed = true;
+    private long totalNanos = -1;
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Ouvre la mesure pour le thread courant.
+     */
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Ferme la mesure du thread courant et fige la durée totale.
+     */
+    void end() {
+        totalNanos = System.nanoTime() - startNanos;
+        CURRENT.remove();
+    }
+
+    /**
+     * @return La mesure de la requête en cours sur ce thread, ou {@code null} si aucune n'est ouverte.
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ajoute une durée à une phase de la requête en cours, s'il y en a une.
+     */
+    public static void add(Phase phase, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.durations[phase.ordinal()] += nanos;
+        }
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementEnded() {
+        durations[Phase.DB.ordinal()] += System.nanoTime() - statementStart;
+        statements++;
+    }
+
+    void handlerStarted() {
+        handlerStart = System.nanoTime();
+        handlerTimed = false;
+    }
+
+    /**
+     * Clôt la phase contrôleur ; seul le premier appel compte (début de la sérialisation ou fin du handler).
+     */
+    void handlerEnded() {
+        if (!handlerTimed) {
+            durations[Phase.APP.ordinal()] += System.nanoTime() - handlerStart;
+            handlerTimed = true;
+        }
+    }
+
+    public long nanos(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * @return La valeur de l'en-tête {@code Server-Timing}, par exemple
+     * {@code token;dur=0.41, db;dur=2.10;desc="3 statements", app;dur=3.02, total;dur=4.20}.
+     * Les phases non rencontrées sont omises.
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long nanos = durations[phase.ordinal()];
+            if (nanos == 0 && !(phase == Phase.DB && statements > 0)) {
+                continue;
+            }
+            header.append(phase.metric).append(";dur=").append(millis(nanos));
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(statements).append(statements == 1 ? " statement\"" : " statements\"");
+            } else {
+                header.append(";desc=\"").append(phase.description).append('"');
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    /**
+     * @return Les mêmes mesures sous forme {@code clé=valeur}, pour la ligne de journal.
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder(128);
+        fields.append("total=").append(millis(totalNanos));
+        for (Phase phase : PHASES) {
+            fields.append(' ').append(phase.metric).append('=').append(millis(durations[phase.ordinal()]));
+        }
+        return fields.append(" statements=").append(statements).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
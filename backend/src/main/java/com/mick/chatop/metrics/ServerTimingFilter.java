@@ -0,0 +1,144 @@
+package com.mick.chatop.metrics;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Ouvre la mesure {@link ServerTiming} de chaque requête, puis ajoute l'en-tête {@code Server-Timing}
+ * et une ligne de journal ({@code chatop.server-timing}) à la fin du traitement.
+ *
+ * La sérialisation JSON écrit le corps de la réponse : pour pouvoir encore ajouter l'en-tête ensuite,
+ * la réponse est mise en tampon. Dès qu'une requête passe en traitement asynchrone (Server-Sent Events,
+ * export en flux), le tampon est vidé et la suite de la réponse est écrite directement : ces requêtes
+ * ne sont pas mesurées. Les chemins exclus (fichiers volumineux servis de façon synchrone) ne le sont pas non plus.
+ *
+ * Ce filtre n'est pas un bean : il n'est enregistré, devant la chaîne de sécurité,
+ * que si {@code chatop.server-timing.enabled=true}.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger("chatop.server-timing");
+
+    private final List<String> excludedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ServerTimingFilter(List<String> excludedPaths) {
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        BufferedResponse bufferedResponse = new BufferedResponse(response);
+        ServerTiming timing = ServerTiming.begin();
+        try {
+            filterChain.doFilter(new AsyncAwareRequest(request, bufferedResponse), bufferedResponse);
+        } finally {
+            timing.end();
+            if (request.isAsyncStarted()) {
+                // La réponse s'écrit après la fin du filtre : rien à mesurer
+                return;
+            }
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, timing.toHeaderValue());
+            }
+            log.info("method={} path={} status={} {}", request.getMethod(), request.getRequestURI(),
+                    bufferedResponse.getStatus(), timing.toLogFields());
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Requête qui cesse la mise en tampon de la réponse au démarrage du traitement asynchrone,
+     * avant que les écritures ne passent sur d'autres threads.
+     */
+    private static final class AsyncAwareRequest extends HttpServletRequestWrapper {
+
+        private final BufferedResponse response;
+
+        private AsyncAwareRequest(HttpServletRequest request, BufferedResponse response) {
+            super(request);
+            this.response = response;
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            response.stopBuffering();
+            return super.startAsync();
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+            response.stopBuffering();
+            return super.startAsync(servletRequest, servletResponse);
+        }
+    }
+
+    /**
+     * Réponse mise en tampon jusqu'au démarrage éventuel du traitement asynchrone, écrite directement ensuite.
+     */
+    private static final class BufferedResponse extends ContentCachingResponseWrapper {
+
+        private volatile boolean streaming;
+
+        private BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void stopBuffering() {
+            if (streaming) {
+                return;
+            }
+            try {
+                copyBodyToResponse(false);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write the buffered response", e);
+            }
+            streaming = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return streaming ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return streaming ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streaming) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.mick.chatop.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Mesure la phase contrôleur ({@code app}) : de l'appel du handler jusqu'au début
+ * de la sérialisation de la réponse, ou à défaut jusqu'à la fin du handler.
+ */
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.handlerStarted();
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        handlerEnded();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        handlerEnded();
+    }
+
+    private static void handlerEnded() {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.handlerEnded();
+        }
+    }
+}
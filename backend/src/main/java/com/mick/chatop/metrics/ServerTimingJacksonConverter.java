@@ -0,0 +1,37 @@
+package com.mick.chatop.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Convertisseur JSON mesurant la sérialisation des réponses (phase {@code json}).
+ * Le début de l'écriture clôt la phase contrôleur.
+ */
+public class ServerTimingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public ServerTimingJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        timing.handlerEnded();
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            ServerTiming.add(ServerTiming.Phase.JSON, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mick.chatop.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Écouteur datasource-proxy comptant les requêtes SQL exécutées par le thread de la requête
+ * et leur durée (phase {@code db}). Un batch JDBC compte pour une exécution.
+ */
+public class ServerTimingQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.statementEnded();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.mick.chatop.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Statistiques des requêtes SQL, regroupées par requête normalisée (littéraux et listes de paramètres remplacés).
+ *
+ * Pour chaque requête : nombre d'exécutions, temps total et maximal, lignes lues ({@code ResultSet.next()})
+ * ou modifiées (nombre de mises à jour). Le nombre de requêtes distinctes est borné ({@link #OTHER} compris) :
+ * au-delà, les nouvelles requêtes sont cumulées sous {@link #OTHER}.
+ *
+ * Une requête plus lente que le seuil est journalisée ({@code chatop.sql.slow}) avec la pile d'appel
+ * réduite aux classes de l'application. Les compteurs sont sans verrou ({@link LongAdder}).
+ */
+public class SqlStatementStats implements QueryExecutionListener, MethodExecutionListener {
+
+    public static final String OTHER = "<other>";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("chatop.sql.slow");
+
+    private static final String START_KEY = SqlStatementStats.class.getName() + ".start";
+    private static final String APPLICATION_PACKAGE = "com.mick.chatop.";
+    private static final String OWN_PACKAGE = SqlStatementStats.class.getPackageName() + ".";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\.\\.\\.\\)(?:\\s*,\\s*\\(\\?\\.\\.\\.\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Statistiques d'une requête normalisée.
+     */
+    public record Snapshot(String sql, long count, long totalMillis, double meanMillis, long maxMillis, long rows) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final ThreadLocal<Entry> reading = new ThreadLocal<>();
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+
+    /**
+     * @param slowThreshold Durée au-delà de laquelle une requête est journalisée.
+     * @param maxStatements Nombre maximal de requêtes distinctes suivies.
+     */
+    public SqlStatementStats(Duration slowThreshold, int maxStatements) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_KEY, Long.class);
+        long elapsed = start == null
+                ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                : System.nanoTime() - start;
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        Entry entry = entryFor(sql);
+
+        entry.count.increment();
+        entry.totalNanos.add(elapsed);
+        entry.maxNanos.accumulate(elapsed);
+        switch (execInfo.getResult()) {
+            case ResultSet ignored -> reading.set(entry);
+            case Integer updated -> entry.rows.add(Math.max(updated, 0));
+            case int[] updated -> {
+                for (int rows : updated) {
+                    entry.rows.add(Math.max(rows, 0));
+                }
+            }
+            case null, default -> reading.remove();
+        }
+
+        if (elapsed >= slowThresholdNanos) {
+            slowLog.warn("Requête SQL lente ({} ms, {}) : {}\n\tat {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    execInfo.isSuccess() ? "succès" : "échec", sql, callSite());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    /**
+     * Compte les lignes lues : chaque {@code ResultSet.next()} positif est attribué à la dernière requête
+     * exécutée par le thread (Hibernate lit le résultat juste après l'exécution, sur le même thread).
+     */
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            Entry entry = reading.get();
+            if (entry != null) {
+                entry.rows.increment();
+            }
+        }
+    }
+
+    /**
+     * @return Les {@code limit} requêtes les plus lentes en moyenne.
+     */
+    public List<Snapshot> slowest(int limit) {
+        return top(Comparator.comparingDouble(Snapshot::meanMillis), limit);
+    }
+
+    /**
+     * @return Les {@code limit} requêtes les plus exécutées.
+     */
+    public List<Snapshot> mostFrequent(int limit) {
+        return top(Comparator.comparingLong(Snapshot::count), limit);
+    }
+
+    /**
+     * @return Les {@code limit} requêtes cumulant le plus de temps.
+     */
+    public List<Snapshot> mostTime(int limit) {
+        return top(Comparator.comparingLong(Snapshot::totalMillis), limit);
+    }
+
+    public int distinctStatements() {
+        return entries.size();
+    }
+
+    public void reset() {
+        entries.clear();
+        normalized.clear();
+    }
+
+    private List<Snapshot> top(Comparator<Snapshot> order, int limit) {
+        return entries.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private Entry entryFor(String sql) {
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            if (normalized.size() < maxStatements * 4) {
+                normalized.put(sql, key);
+            }
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        if (entries.size() >= maxStatements - 1) {
+            return entries.computeIfAbsent(OTHER, k -> new Entry());
+        }
+        return entries.computeIfAbsent(key, k -> new Entry());
+    }
+
+    /**
+     * Remplace les littéraux par {@code ?} et réduit les listes de paramètres ({@code IN (?, ?, ?)},
+     * {@code INSERT} multi-lignes) afin que les variantes d'une même requête soient regroupées.
+     */
+    static String normalize(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+        result = PARAMETER_LIST.matcher(result).replaceAll("(?...)");
+        return ROW_LIST.matcher(result).replaceAll("(?...), ...");
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(OWN_PACKAGE))
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.joining("\n\tat ")));
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+
+        private Snapshot snapshot(String sql) {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            return new Snapshot(sql, executions,
+                    TimeUnit.NANOSECONDS.toMillis(total),
+                    executions == 0 ? 0 : total / (double) executions / TimeUnit.MILLISECONDS.toNanos(1),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                    rows.sum());
+        }
+    }
+}
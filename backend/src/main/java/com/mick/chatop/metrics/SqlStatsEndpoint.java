@@ -0,0 +1,89 @@
+package com.mick.chatop.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Point d'entrée actuator {@code /actuator/sqlstats} : requêtes SQL normalisées les plus lentes,
+ * les plus fréquentes et les plus coûteuses au total, et statistiques Hibernate (requêtes JPQL et
+ * dérivées, chargements d'entités). {@code DELETE} remet les compteurs à zéro.
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    /**
+     * Statistiques Hibernate d'une requête JPQL (ou dérivée d'un nom de méthode de repository).
+     */
+    public record HibernateQuery(String query, long count, long totalMillis, long meanMillis, long maxMillis, long rows) {
+    }
+
+    public record HibernateSummary(long queryExecutions, long queryMaxMillis, String slowestQuery,
+                                   long preparedStatements, long entityLoads, long entityFetches,
+                                   long collectionLoads, long collectionFetches, List<HibernateQuery> queries) {
+    }
+
+    public record Report(int distinctStatements,
+                         List<SqlStatementStats.Snapshot> slowest,
+                         List<SqlStatementStats.Snapshot> mostFrequent,
+                         List<SqlStatementStats.Snapshot> mostTime,
+                         HibernateSummary hibernate) {
+    }
+
+    private final SqlStatementStats statementStats;
+    private final Statistics statistics;
+    private final int topN;
+
+    public SqlStatsEndpoint(SqlStatementStats statementStats, SessionFactory sessionFactory, int topN) {
+        this.statementStats = statementStats;
+        this.statistics = sessionFactory.getStatistics();
+        this.topN = topN;
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(
+                statementStats.distinctStatements(),
+                statementStats.slowest(topN),
+                statementStats.mostFrequent(topN),
+                statementStats.mostTime(topN),
+                hibernateSummary());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statementStats.reset();
+        statistics.clear();
+    }
+
+    private HibernateSummary hibernateSummary() {
+        List<HibernateQuery> queries = Arrays.stream(statistics.getQueries())
+                .map(this::hibernateQuery)
+                .sorted(Comparator.comparingLong(HibernateQuery::totalMillis).reversed())
+                .limit(topN)
+                .toList();
+        return new HibernateSummary(
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                queries);
+    }
+
+    private HibernateQuery hibernateQuery(String query) {
+        QueryStatistics stats = statistics.getQueryStatistics(query);
+        return new HibernateQuery(query, stats.getExecutionCount(), stats.getExecutionTotalTime(),
+                stats.getExecutionAvgTime(), stats.getExecutionMaxTime(), stats.getExecutionRowCount());
+    }
+}
@@ -0,0 +1,50 @@
+package com.mick.chatop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} mesurant la durée des hachages et des vérifications
+ * (métrique {@code chatop.auth.password}, étiquette {@code operation}).
+ *
+ * BCrypt est volontairement lent : c'est le poste dominant d'une connexion,
+ * à surveiller lorsque le coût de l'algorithme est augmenté.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    public static final String METRIC_NAME = "chatop.auth.password";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(METRIC_NAME)
+                .description("Password hashing and verification time")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
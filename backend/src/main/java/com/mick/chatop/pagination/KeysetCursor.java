@@ -0,0 +1,47 @@
+package com.mick.chatop.pagination;
+
+import com.mick.chatop.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination par clé ("keyset") sur une date et un identifiant, dans l'ordre décroissant.
+ *
+ * Contrairement à un décalage (OFFSET), le curseur permet de reprendre la lecture
+ * directement à la bonne position de l'index : le coût d'une page ne dépend pas de sa profondeur.
+ * Il est transmis au client sous forme opaque (Base64 URL).
+ * Il pagine les messages, les annonces d'un propriétaire et les conversations de la boîte de réception.
+ *
+ * @param createdAt Date du dernier élément de la page précédente
+ * @param id        Identifiant du dernier élément de la page précédente
+ */
+public record KeysetCursor(LocalDateTime createdAt, Integer id) {
+
+    /**
+     * @return La forme opaque du curseur.
+     */
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Forme opaque du curseur.
+     * @return Le curseur décodé.
+     * @throws BadRequestException Si le curseur est invalide.
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
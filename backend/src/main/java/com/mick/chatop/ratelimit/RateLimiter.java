@@ -0,0 +1,160 @@
+package com.mick.chatop.ratelimit;
+
+import com.mick.chatop.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des seaux à jetons par route limitée.
+ *
+ * La recherche de la route se fait par une seule lecture dans une {@link HashMap} immuable
+ * (clé "MÉTHODE chemin"), puis le seau du client est obtenu dans une {@link ConcurrentHashMap}
+ * propre à la route. Aucun verrou n'est pris sur le chemin critique.
+ *
+ * Les seaux inactifs sont supprimés périodiquement pour borner la mémoire.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final Map<String, Route> routes;
+    private final long idleNanos;
+
+    /**
+     * Construit les routes limitées à partir de la configuration.
+     *
+     * @param properties Propriétés {@code chatop.rate-limit.*}.
+     */
+    public RateLimiter(RateLimitProperties properties) {
+        Map<String, Route> byKey = new HashMap<>();
+        if (properties.enabled() && properties.routes() != null) {
+            properties.routes().forEach((name, config) -> {
+                Route route = new Route(name, config.capacity(), config.refillPeriod().toNanos());
+                byKey.put(key(config.method(), config.path()), route);
+                logger.info("Limitation de débit sur {} {} : {} requêtes / {}",
+                        config.method(), config.path(), config.capacity(), config.refillPeriod());
+            });
+        }
+        this.routes = Map.copyOf(byKey);
+        this.idleNanos = properties.idleTimeout().toNanos();
+    }
+
+    /**
+     * Retourne la route limitée correspondant à la requête.
+     *
+     * @param method Méthode HTTP.
+     * @param path   Chemin de la requête.
+     * @return La route, ou {@code null} si la requête n'est pas limitée.
+     */
+    public Route match(String method, String path) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        return routes.get(key(method, path));
+    }
+
+    /**
+     * Supprime les seaux pleins depuis plus de {@code idle-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${chatop.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Route route : routes.values()) {
+            route.evictIdle(now, idleNanos);
+        }
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+
+    /**
+     * Limite d'une route : un seau par adresse IP et un seau par sujet authentifié.
+     */
+    public static final class Route {
+
+        private final String name;
+        private final long emissionInterval;
+        private final long burstTolerance;
+        private final ConcurrentHashMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, TokenBucket> subjectBuckets = new ConcurrentHashMap<>();
+
+        Route(String name, int capacity, long refillPeriodNanos) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity must be positive for route " + name);
+            }
+            this.name = name;
+            this.emissionInterval = refillPeriodNanos / capacity;
+            this.burstTolerance = emissionInterval * capacity;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Consomme un jeton pour l'adresse IP du client.
+         *
+         * @return {@code 0} si autorisé, sinon le délai d'attente en nanosecondes.
+         */
+        public long tryAcquireForClient(String clientIp, long nowNanos) {
+            return acquire(clientBuckets, clientIp, nowNanos);
+        }
+
+        /**
+         * Consomme un jeton pour le sujet authentifié (email de l'utilisateur).
+         *
+         * @return {@code 0} si autorisé, sinon le délai d'attente en nanosecondes.
+         */
+        public long tryAcquireForSubject(String subject, long nowNanos) {
+            return acquire(subjectBuckets, subject, nowNanos);
+        }
+
+        /**
+         * Consomme un jeton pour l'adresse IP puis, si la requête est authentifiée, pour le sujet.
+         * Si le seau du sujet refuse la requête, le jeton de l'adresse IP est rendu : une requête
+         * refusée ne réduit pas la limite des autres utilisateurs derrière la même adresse.
+         *
+         * @param subject Sujet authentifié, ou {@code null} pour une requête anonyme.
+         * @return {@code 0} si autorisé, sinon le délai d'attente en nanosecondes.
+         */
+        public long tryAcquire(String clientIp, String subject, long nowNanos) {
+            long wait = tryAcquireForClient(clientIp, nowNanos);
+            if (wait > 0 || subject == null) {
+                return wait;
+            }
+            wait = tryAcquireForSubject(subject, nowNanos);
+            if (wait > 0) {
+                TokenBucket clientBucket = clientBuckets.get(clientIp);
+                if (clientBucket != null) {
+                    clientBucket.refund(emissionInterval);
+                }
+            }
+            return wait;
+        }
+
+        int size() {
+            return clientBuckets.size() + subjectBuckets.size();
+        }
+
+        private long acquire(ConcurrentHashMap<String, TokenBucket> buckets, String key, long nowNanos) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+            }
+            return bucket.tryConsume(nowNanos, emissionInterval, burstTolerance);
+        }
+
+        private void evictIdle(long nowNanos, long idleNanos) {
+            clientBuckets.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleNanos));
+            subjectBuckets.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleNanos));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mick.chatop.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou, implémenté selon l'algorithme GCRA (Generic Cell Rate Algorithm).
+ *
+ * Au lieu de stocker un nombre de jetons et une date de recharge, le seau ne conserve qu'une
+ * seule valeur : le "temps d'arrivée théorique" (TAT) de la prochaine requête. Une consommation
+ * se résume donc à un unique compareAndSet sur un {@link AtomicLong}, sans allocation.
+ *
+ * Les paramètres (intervalle d'émission et tolérance de rafale) sont portés par la route
+ * appelante afin que chaque seau ne coûte qu'un objet en mémoire.
+ */
+public final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param nowNanos Instant de création (horloge {@link System#nanoTime()}), le seau démarre plein.
+     */
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tente de consommer un jeton.
+     *
+     * @param nowNanos         Instant courant ({@link System#nanoTime()}).
+     * @param emissionInterval Durée de recharge d'un jeton, en nanosecondes.
+     * @param burstTolerance   Capacité du seau exprimée en nanosecondes (capacité × intervalle).
+     * @return {@code 0} si le jeton est accordé, sinon le délai d'attente en nanosecondes.
+     */
+    public long tryConsume(long nowNanos, long emissionInterval, long burstTolerance) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + emissionInterval;
+            long wait = next - nowNanos - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Rend un jeton consommé par {@link #tryConsume} (requête finalement refusée pour une autre raison).
+     *
+     * @param emissionInterval Durée de recharge d'un jeton, en nanosecondes.
+     */
+    public void refund(long emissionInterval) {
+        theoreticalArrival.addAndGet(-emissionInterval);
+    }
+
+    /**
+     * Indique si le seau est plein depuis au moins {@code idleNanos} : il peut alors être
+     * supprimé sans effet sur le client, un nouveau seau plein étant équivalent.
+     *
+     * @param nowNanos  Instant courant ({@link System#nanoTime()}).
+     * @param idleNanos Durée d'inactivité tolérée, en nanosecondes.
+     * @return {@code true} si le seau peut être évincé.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() > idleNanos;
+    }
+}
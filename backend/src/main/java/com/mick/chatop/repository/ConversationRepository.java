@@ -0,0 +1,49 @@
+package com.mick.chatop.repository;
+
+import com.mick.chatop.dto.ConversationDto;
+import com.mick.chatop.entity.ConversationEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository des conversations (boîte de réception des propriétaires).
+ *
+ * Les écritures sont faites par l'écrivain de messages (upsert JDBC). Les lectures sont paginées
+ * par clé sur {@code (last_message_at, id)} et parcourent une seule plage de l'index
+ * {@code (owner_id, last_message_at, id)}.
+ */
+public interface ConversationRepository extends JpaRepository<ConversationEntity, Integer> {
+
+    @Query("""
+            select new com.mick.chatop.dto.ConversationDto(c.id, c.rental.id, c.user.id, c.last_message, c.last_message_at, c.unread_count)
+            from ConversationEntity c
+            where c.owner.id = :ownerId
+            order by c.last_message_at desc, c.id desc""")
+    List<ConversationDto> findLatestByOwner(@Param("ownerId") Integer ownerId, Limit limit);
+
+    @Query("""
+            select new com.mick.chatop.dto.ConversationDto(c.id, c.rental.id, c.user.id, c.last_message, c.last_message_at, c.unread_count)
+            from ConversationEntity c
+            where c.owner.id = :ownerId
+              and (c.last_message_at < :lastMessageAt or (c.last_message_at = :lastMessageAt and c.id < :id))
+            order by c.last_message_at desc, c.id desc""")
+    List<ConversationDto> findByOwnerBefore(@Param("ownerId") Integer ownerId,
+                                            @Param("lastMessageAt") LocalDateTime lastMessageAt,
+                                            @Param("id") Integer id,
+                                            Limit limit);
+
+    /**
+     * Remet à zéro le compteur de non-lus d'une conversation appartenant au propriétaire.
+     *
+     * @return Le nombre de conversations mises à jour (0 si elle n'existe pas ou appartient à un autre propriétaire).
+     */
+    @Modifying
+    @Query("update ConversationEntity c set c.unread_count = 0 where c.id = :id and c.owner.id = :ownerId")
+    int markAsRead(@Param("id") Integer id, @Param("ownerId") Integer ownerId);
+}
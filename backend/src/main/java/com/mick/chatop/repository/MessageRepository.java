@@ -1,8 +1,58 @@
 package com.mick.chatop.repository;
 
+import com.mick.chatop.dto.MessageDto;
 import com.mick.chatop.entity.MessageEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-// Cette interface est responsable de la gestion des opérations CRUD
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository des messages.
+ *
+ * Les lectures sont paginées par clé sur {@code (created_at, id)} et s'appuient sur les index
+ * composites {@code (rental_id, created_at, id)} et {@code (user_id, created_at, id)} :
+ * chaque page est un parcours de plage d'index, quel que soit le volume de la table.
+ * Les résultats sont projetés en {@link MessageDto}, sans charger les utilisateurs ni les annonces.
+ */
 public interface MessageRepository extends JpaRepository<MessageEntity, Integer> {
+
+    @Query("""
+            select new com.mick.chatop.dto.MessageDto(m.id, m.rental.id, m.user.id, m.message, m.created_at)
+            from MessageEntity m
+            where m.rental.id = :rentalId
+            order by m.created_at desc, m.id desc""")
+    List<MessageDto> findLatestByRental(@Param("rentalId") Integer rentalId, Limit limit);
+
+    @Query("""
+            select new com.mick.chatop.dto.MessageDto(m.id, m.rental.id, m.user.id, m.message, m.created_at)
+            from MessageEntity m
+            where m.rental.id = :rentalId
+              and (m.created_at < :createdAt or (m.created_at = :createdAt and m.id < :id))
+            order by m.created_at desc, m.id desc""")
+    List<MessageDto> findByRentalBefore(@Param("rentalId") Integer rentalId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Integer id,
+                                        Limit limit);
+
+    @Query("""
+            select new com.mick.chatop.dto.MessageDto(m.id, m.rental.id, m.user.id, m.message, m.created_at)
+            from MessageEntity m
+            where m.user.id = :userId
+            order by m.created_at desc, m.id desc""")
+    List<MessageDto> findLatestByUser(@Param("userId") Integer userId, Limit limit);
+
+    @Query("""
+            select new com.mick.chatop.dto.MessageDto(m.id, m.rental.id, m.user.id, m.message, m.created_at)
+            from MessageEntity m
+            where m.user.id = :userId
+              and (m.created_at < :createdAt or (m.created_at = :createdAt and m.id < :id))
+            order by m.created_at desc, m.id desc""")
+    List<MessageDto> findByUserBefore(@Param("userId") Integer userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Integer id,
+                                      Limit limit);
 }
@@ -1,8 +1,46 @@
 package com.mick.chatop.repository;
 
+import com.mick.chatop.dto.RentalDto;
 import com.mick.chatop.entity.RentalEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 // Cette interface est responsable de la gestion des opérations CRUD
 public interface RentalRepository extends JpaRepository<RentalEntity, Integer> {
+
+    // Lit uniquement la clé étrangère du propriétaire, sans charger l'annonce ni l'utilisateur
+    @Query("select r.owner.id from RentalEntity r where r.id = :id")
+    Optional<Integer> findOwnerIdById(@Param("id") Integer id);
+
+    // Lit uniquement la version, pour vérifier un If-Match avant d'écrire une image
+    @Query("select r.version from RentalEntity r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    // Annonces d'un propriétaire, de la plus récente à la plus ancienne, paginées par clé sur (created_at, id)
+    // (index idx_rentals_owner_created) ; projetées en RentalDto sans charger le propriétaire
+    @Query("""
+            select new com.mick.chatop.dto.RentalDto(r.id, r.name, r.surface, r.price, r.description, r.picture,
+                r.owner.id, r.created_at, r.updated_at, r.version, r.views)
+            from RentalEntity r
+            where r.owner.id = :ownerId
+            order by r.created_at desc, r.id desc""")
+    List<RentalDto> findByOwnerId(@Param("ownerId") Integer ownerId, Limit limit);
+
+    @Query("""
+            select new com.mick.chatop.dto.RentalDto(r.id, r.name, r.surface, r.price, r.description, r.picture,
+                r.owner.id, r.created_at, r.updated_at, r.version, r.views)
+            from RentalEntity r
+            where r.owner.id = :ownerId
+              and (r.created_at < :createdAt or (r.created_at = :createdAt and r.id < :id))
+            order by r.created_at desc, r.id desc""")
+    List<RentalDto> findByOwnerIdBefore(@Param("ownerId") Integer ownerId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Integer id,
+                                        Limit limit);
 }
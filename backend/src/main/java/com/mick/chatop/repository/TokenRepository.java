@@ -4,6 +4,7 @@ import com.mick.chatop.entity.TokenEntity;
 import com.mick.chatop.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.List;
@@ -14,6 +15,9 @@ import java.util.List;
  */
 @Repository
 public interface TokenRepository extends JpaRepository<TokenEntity, Long> {
+    // Vérifiée à chaque requête authentifiée : toujours sur la primaire (transaction en écriture),
+    // un réplica en retard refuserait un token tout juste émis et accepterait un token révoqué
+    @Transactional
     Optional<TokenEntity> findByToken(String token);
     List<TokenEntity> findAllByUserAndValidTrue(UserEntity user);
 } 
\ No newline at end of file
@@ -1,11 +1,24 @@
 package com.mick.chatop.repository;
 
+import com.mick.chatop.dto.UserNameDto;
 import com.mick.chatop.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 // Cette interface est responsable de la gestion des opérations CRUD
 public interface UserRepository extends JpaRepository<UserEntity, Integer> {
     Optional<UserEntity> findByEmail(String email);
+
+    // Résout l'identifiant d'un utilisateur sans charger l'entité (ni son mot de passe)
+    @Query("select u.id from UserEntity u where u.email = :email")
+    Optional<Integer> findIdByEmail(@Param("email") String email);
+
+    // Noms de plusieurs utilisateurs en une seule requête IN, sans email ni mot de passe
+    @Query("select new com.mick.chatop.dto.UserNameDto(u.id, u.name) from UserEntity u where u.id in :ids")
+    List<UserNameDto> findNamesByIdIn(@Param("ids") Collection<Integer> ids);
 }
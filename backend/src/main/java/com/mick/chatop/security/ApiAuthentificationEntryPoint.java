@@ -1,5 +1,6 @@
 package com.mick.chatop.security;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mick.chatop.dto.ErrorResponse;
 import jakarta.servlet.ServletException;
@@ -17,9 +18,29 @@ import java.io.IOException;
  * Cette classe est déclenchée automatiquement lorsqu'un utilisateur non authentifié
  * tente d'accéder à une ressource protégée.
  * Elle renvoie une réponse JSON structurée avec un code 401.
+ *
+ * Le corps de la réponse étant toujours identique, il est sérialisé une seule fois,
+ * avec l'{@link ObjectMapper} partagé de l'application.
  */
 public class ApiAuthentificationEntryPoint implements AuthenticationEntryPoint {
 
+    private final byte[] unauthorizedBody;
+
+    /**
+     * @param objectMapper L'ObjectMapper partagé de l'application.
+     */
+    public ApiAuthentificationEntryPoint(ObjectMapper objectMapper) {
+        try {
+            this.unauthorizedBody = objectMapper.writeValueAsBytes(new ErrorResponse(
+                    "UNAUTHORIZED",
+                    401,
+                    "Unauthenticated user"
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the unauthorized response", e);
+        }
+    }
+
     /**
      * Méthode appelée automatiquement lorsqu'un utilisateur non authentifié accède à une route protégée.
      *
@@ -37,14 +58,7 @@ public class ApiAuthentificationEntryPoint implements AuthenticationEntryPoint {
 
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                "UNAUTHORIZED",
-                401,
-                "Unauthenticated user"
-        );
-
-        ObjectMapper mapper = new ObjectMapper();
-        response.getWriter().write(mapper.writeValueAsString(errorResponse));
+        response.setContentLength(unauthorizedBody.length);
+        response.getOutputStream().write(unauthorizedBody);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,268 @@
+package com.mick.chatop.security;
+
+import com.mick.chatop.exception.ApiException;
+import com.mick.chatop.exception.ErrorBodies;
+import com.mick.chatop.idempotency.IdempotencyStore;
+import com.mick.chatop.idempotency.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Filtre d'idempotence des créations ({@code POST /api/rentals} et {@code POST /api/messages}).
+ *
+ * Lorsqu'une requête porte l'en-tête {@code Idempotency-Key}, la clé est qualifiée par l'utilisateur
+ * authentifié et la route, puis réservée dans l'{@link IdempotencyStore} :
+ * - une requête dupliquée concurrente attend la fin de la première ;
+ * - une requête dupliquée terminée reçoit la réponse enregistrée, sans atteindre le contrôleur
+ *   (ni fichier écrit, ni ligne insérée).
+ * Seules les réponses 2xx définitives sont enregistrées ; en cas d'erreur la clé est libérée et le client peut réessayer.
+ * Un {@code 202 Accepted} (message dont l'écriture est encore en cours) libère aussi la clé : le rejouer
+ * figerait un état provisoire comme réponse finale.
+ * L'empreinte du corps (champs et fichiers d'un formulaire multipart) est enregistrée avec la clé :
+ * une clé réutilisée avec un autre corps est refusée (422) au lieu de rejouer une réponse sans rapport.
+ *
+ * Comme {@link RateLimitFilter}, ce filtre n'est pas déclaré comme bean et se place après
+ * {@code BearerTokenAuthenticationFilter}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/api/rentals", "/api/messages");
+    private static final byte[] INVALID_KEY =
+            ErrorBodies.json(HttpStatus.BAD_REQUEST, "Idempotency-Key must be between 1 and 255 characters");
+
+    private final IdempotencyStore idempotencyStore;
+    private final Duration wait;
+
+    /**
+     * @param idempotencyStore Registre des clés d'idempotence.
+     * @param wait             Durée maximale d'attente d'une requête dupliquée en cours.
+     */
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, Duration wait) {
+        this.idempotencyStore = idempotencyStore;
+        this.wait = wait;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String clientKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            ErrorBodies.write(response, HttpStatus.BAD_REQUEST, INVALID_KEY);
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // La requête sera rejetée par la chaîne de sécurité
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = qualify(authentication.getName(), request.getRequestURI(), clientKey);
+
+        // Le corps d'une requête non multipart est lu ici : il est ensuite relu depuis la mémoire
+        MessageDigest bodyDigest = sha256();
+        if (isMultipart(request)) {
+            try {
+                digestParts(request, bodyDigest);
+            } catch (IllegalStateException e) {
+                // Formulaire trop volumineux : le conteneur relèvera la même erreur pour le contrôleur
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } else {
+            byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+            bodyDigest.update(body);
+            request = new CachedBodyRequest(request, body);
+        }
+        String requestHash = HexFormat.of().formatHex(bodyDigest.digest());
+
+        Optional<StoredResponse> stored;
+        try {
+            stored = idempotencyStore.begin(key, requestHash, wait);
+        } catch (ApiException e) {
+            ErrorBodies.write(response, e.getStatus(), e.getBody());
+            return;
+        }
+        if (stored.isPresent()) {
+            replay(response, stored.get());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (isFinalSuccess(wrapper.getStatus())) {
+                idempotencyStore.complete(key, new StoredResponse(
+                        wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.abandon(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isFinalSuccess(int status) {
+        return status >= 200 && status < 300 && status != HttpStatus.ACCEPTED.value();
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    /**
+     * Qualifie la clé du client par l'utilisateur et la route, puis la condense (SHA-256) :
+     * deux utilisateurs ne partagent jamais une clé, et sa longueur est fixe.
+     */
+    private static String qualify(String subject, String path, String clientKey) {
+        byte[] hash = sha256().digest((subject + '\n' + path + '\n' + clientKey).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    /**
+     * Condense chaque partie (nom, nom de fichier, contenu) dans l'ordre d'envoi. Les parties sont lues
+     * par le conteneur, qui les conserve : le contrôleur les relit ensuite sans nouvelle lecture réseau.
+     */
+    private static void digestParts(HttpServletRequest request, MessageDigest digest) throws IOException, ServletException {
+        try (OutputStream sink = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            for (Part part : request.getParts()) {
+                String header = part.getName() + '\0' + (part.getSubmittedFileName() != null ? part.getSubmittedFileName() : "")
+                        + '\0' + part.getSize() + '\0';
+                sink.write(header.getBytes(StandardCharsets.UTF_8));
+                try (InputStream content = part.getInputStream()) {
+                    content.transferTo(sink);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Requête dont le corps, déjà lu pour en calculer l'empreinte, est relu depuis la mémoire.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream content = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return content.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return content.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return content.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // Le corps est déjà en mémoire : tout est disponible immédiatement
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
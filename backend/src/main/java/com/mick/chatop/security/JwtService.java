@@ -1,5 +1,6 @@
 package com.mick.chatop.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -10,24 +11,34 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Service responsable de la génération de tokens JWT pour les utilisateurs authentifiés.
  * 
  * Utilise {@link JwtEncoder} fourni par Spring Security pour signer le token.
+ * Les administrateurs ({@code chatop.security.admin-emails}) reçoivent la portée {@value #ADMIN_SCOPE},
+ * exposée par Spring Security sous l'autorité {@code SCOPE_admin}.
  */
 @Service
 public class JwtService {
 
+    public static final String ADMIN_SCOPE = "admin";
+
     private final JwtEncoder jwtEncoder;
+    private final Set<String> adminEmails;
 
     /**
      * Constructeur injectant l'encodeur JWT.
      *
-     * @param jwtEncoder Composant responsable de l'encodage (signature) des JWT.
+     * @param jwtEncoder  Composant responsable de l'encodage (signature) des JWT.
+     * @param adminEmails Emails des utilisateurs ayant accès aux points d'entrée d'administration.
      */
-    public JwtService(JwtEncoder jwtEncoder) {
+    public JwtService(JwtEncoder jwtEncoder,
+                      @Value("${chatop.security.admin-emails:}") Set<String> adminEmails) {
         this.jwtEncoder = jwtEncoder;
+        this.adminEmails = adminEmails;
     }
 
     /**
@@ -37,16 +48,19 @@ public class JwtService {
      * @return Une chaîne représentant le token JWT signé.
      */
     public String generateToken(Authentication authentication) {
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
                 .issuer("self") // Émetteur du token (self = l'application elle-même)
                 .issuedAt(Instant.now()) // Date de création du token
                 .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS)) // Expiration dans 1 heure
                 .subject(authentication.getName()) // Identifiant unique de l'utilisateur
-                .build();
+                .id(UUID.randomUUID().toString()); // Deux connexions dans la même seconde donnent deux tokens distincts
+        if (adminEmails.contains(authentication.getName())) {
+            claims.claim("scope", ADMIN_SCOPE);
+        }
 
         JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(
                 JwsHeader.with(MacAlgorithm.HS512).build(),
-                claims
+                claims.build()
         );
 
         return this.jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
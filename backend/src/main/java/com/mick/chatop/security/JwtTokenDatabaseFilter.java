@@ -2,6 +2,11 @@ package com.mick.chatop.security;
 
 import com.mick.chatop.repository.TokenRepository;
 import com.mick.chatop.entity.TokenEntity;
+import com.mick.chatop.exception.ErrorBodies;
+import com.mick.chatop.metrics.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,23 +15,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtre pour valider les tokens JWT stockés dans la base de données.
  * Vérifie si le token est présent et valide avant de permettre l'accès aux endpoints sécurisés.
+ *
+ * La durée de la recherche en base ({@code chatop.auth.token.lookup}) et les rejets
+ * ({@code chatop.auth.token.rejected}, par motif) sont mesurés ; le token n'apparaît jamais dans les étiquettes.
+ * La même durée alimente la phase {@code token} de l'en-tête {@code Server-Timing}.
  */
 @Component
 public class JwtTokenDatabaseFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenDatabaseFilter.class);
     private final TokenRepository tokenRepository;
+    private final Timer lookupTimer;
+    private final Counter unknownTokens;
+    private final Counter revokedTokens;
 
-    public JwtTokenDatabaseFilter(TokenRepository tokenRepository) {
+    public JwtTokenDatabaseFilter(TokenRepository tokenRepository, MeterRegistry meterRegistry) {
         this.tokenRepository = tokenRepository;
+        this.lookupTimer = Timer.builder("chatop.auth.token.lookup")
+                .description("Database lookup time of bearer tokens")
+                .register(meterRegistry);
+        this.unknownTokens = rejectedCounter(meterRegistry, "unknown");
+        this.revokedTokens = rejectedCounter(meterRegistry, "revoked");
     }
 
     /**
@@ -50,17 +67,31 @@ public class JwtTokenDatabaseFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             logger.debug("Token extrait : {}", token);
 
+            long start = System.nanoTime();
             Optional<TokenEntity> tokenEntityOpt = tokenRepository.findByToken(token);
+            long elapsed = System.nanoTime() - start;
+            lookupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            ServerTiming.add(ServerTiming.Phase.TOKEN, elapsed);
 
             if (tokenEntityOpt.isEmpty() || !tokenEntityOpt.get().isValid()) {
                 logger.warn("Token non trouvé ou invalide en BDD !");
-                response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                response.getWriter().write("{\"error\":\"UNAUTHORIZED\",\"status\":401,\"message\":\"Token invalid or revoked\"}");
+                if (tokenEntityOpt.isEmpty()) {
+                    unknownTokens.increment();
+                } else {
+                    revokedTokens.increment();
+                }
+                ErrorBodies.write(response, HttpStatus.UNAUTHORIZED, ErrorBodies.TOKEN_INVALID);
                 return;
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("chatop.auth.token.rejected")
+                .description("Bearer tokens rejected by the database check")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 }
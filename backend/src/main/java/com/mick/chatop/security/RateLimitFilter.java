@@ -0,0 +1,66 @@
+package com.mick.chatop.security;
+
+import com.mick.chatop.exception.ErrorBodies;
+import com.mick.chatop.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre de limitation de débit pour les routes sensibles (connexion, inscription, écritures).
+ *
+ * Il est placé après {@code BearerTokenAuthenticationFilter} : chaque requête consomme un jeton
+ * dans le seau de son adresse IP, puis, si elle est authentifiée, dans le seau de son sujet
+ * (le jeton de l'adresse IP est rendu si le sujet a atteint sa limite).
+ * Lorsque la limite est atteinte, une réponse 429 est renvoyée avec l'en-tête {@code Retry-After}.
+ *
+ * Ce filtre n'est volontairement pas déclaré comme bean, afin de ne pas être enregistré
+ * une seconde fois dans le conteneur de servlets hors de la chaîne Spring Security.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimiter.Route route = rateLimiter.match(request.getMethod(), request.getRequestURI());
+        if (route != null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String subject = authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+            long waitNanos = route.tryAcquire(request.getRemoteAddr(), subject, System.nanoTime());
+
+            if (waitNanos > 0) {
+                logger.debug("Limite atteinte sur la route {} pour {}", route.getName(), request.getRemoteAddr());
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        ErrorBodies.write(response, HttpStatus.TOO_MANY_REQUESTS, ErrorBodies.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,58 @@
+package com.mick.chatop.security;
+
+import com.mick.chatop.datasource.ReadYourWritesTracker;
+import com.mick.chatop.datasource.RoutingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtre garantissant la lecture de ses propres écritures lorsque des réplicas sont configurés.
+ *
+ * Les requêtes d'écriture, ainsi que toutes les requêtes d'un utilisateur ayant écrit récemment,
+ * sont entièrement servies par la base primaire. Une écriture réussie ouvre (ou prolonge)
+ * la fenêtre de l'utilisateur.
+ *
+ * Comme {@link RateLimitFilter}, ce filtre n'est pas déclaré comme bean et se place après
+ * {@code BearerTokenAuthenticationFilter}, pour connaître le sujet authentifié.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String subject = authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        boolean write = isWrite(request.getMethod());
+
+        if (write || (subject != null && tracker.wroteRecently(subject))) {
+            RoutingContext.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+            if (write && subject != null && response.getStatus() < 400) {
+                tracker.recordWrite(subject);
+            }
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mick.chatop.service;
+
+import com.mick.chatop.dto.InboxPageDto;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Interface définissant les opérations de la boîte de réception des propriétaires.
+ */
+public interface InboxService {
+
+    /**
+     * Récupère une page des conversations reçues par l'utilisateur connecté,
+     * de la plus récemment active à la plus ancienne.
+     *
+     * @param cursor         Curseur de la page précédente, ou {@code null} pour la première page.
+     * @param size           Nombre de conversations par page.
+     * @param authentication Utilisateur connecté.
+     * @return La page de conversations et le curseur de la page suivante.
+     */
+    InboxPageDto getInbox(String cursor, int size, Authentication authentication);
+
+    /**
+     * Marque une conversation de l'utilisateur connecté comme lue.
+     *
+     * @param conversationId Identifiant de la conversation.
+     * @param authentication Utilisateur connecté.
+     * @throws com.mick.chatop.exception.ResourceNotFoundException si la conversation n'existe pas
+     *                                                             ou n'appartient pas à l'utilisateur.
+     */
+    void markAsRead(Integer conversationId, Authentication authentication);
+}
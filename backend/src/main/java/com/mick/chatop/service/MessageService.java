@@ -1,9 +1,52 @@
 package com.mick.chatop.service;
 
+import com.mick.chatop.dto.MessagePageDto;
 import com.mick.chatop.dto.MessageRequestDto;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 // Cette interface définit les méthodes du service de gestion des messages
 public interface MessageService {
 
-    void createMessage(MessageRequestDto messageRequestDto);
-}
\ No newline at end of file
+    /**
+     * Enregistre un message et attend son commit, dans la limite du délai d'acquittement.
+     *
+     * @param messageRequestDto Message à envoyer.
+     * @return {@code true} si le message est validé en base, {@code false} s'il est en cours d'écriture
+     * à l'expiration du délai (il sera validé sauf erreur : le client ne doit pas le renvoyer).
+     */
+    boolean createMessage(MessageRequestDto messageRequestDto);
+
+    /**
+     * Récupère une page des messages reçus pour une annonce, du plus récent au plus ancien.
+     * Seul le propriétaire de l'annonce peut les consulter.
+     *
+     * @param rentalId       Identifiant de l'annonce.
+     * @param cursor         Curseur de la page précédente, ou {@code null} pour la première page.
+     * @param size           Nombre de messages par page.
+     * @param authentication Utilisateur connecté.
+     * @return La page de messages et le curseur de la page suivante.
+     */
+    MessagePageDto getRentalMessages(Integer rentalId, String cursor, int size, Authentication authentication);
+
+    /**
+     * Récupère une page des messages envoyés par un utilisateur, du plus récent au plus ancien.
+     * Un utilisateur ne peut consulter que ses propres messages.
+     *
+     * @param userId         Identifiant de l'expéditeur.
+     * @param cursor         Curseur de la page précédente, ou {@code null} pour la première page.
+     * @param size           Nombre de messages par page.
+     * @param authentication Utilisateur connecté.
+     * @return La page de messages et le curseur de la page suivante.
+     */
+    MessagePageDto getUserMessages(Integer userId, String cursor, int size, Authentication authentication);
+
+    /**
+     * Ouvre un flux Server-Sent Events des messages reçus par l'utilisateur connecté
+     * sur ses annonces.
+     *
+     * @param authentication Utilisateur connecté.
+     * @return L'émetteur SSE de la connexion.
+     */
+    SseEmitter streamMessages(Authentication authentication);
+}
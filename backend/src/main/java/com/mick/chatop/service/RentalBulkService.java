@@ -0,0 +1,35 @@
+package com.mick.chatop.service;
+
+import com.mick.chatop.dto.RentalImportReportDto;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface définissant l'import et l'export en masse des annonces.
+ */
+public interface RentalBulkService {
+
+    /**
+     * Importe des annonces depuis un flux CSV ou NDJSON, pour le compte de l'utilisateur connecté.
+     *
+     * @param body           Corps de la requête, lu en flux.
+     * @param contentType    {@code text/csv} ou {@code application/x-ndjson}.
+     * @param authentication Utilisateur connecté, propriétaire des annonces importées.
+     * @return Le rapport d'import (lignes créées, lignes rejetées et motifs).
+     * @throws com.mick.chatop.exception.BadRequestException Si le format n'est pas pris en charge.
+     */
+    RentalImportReportDto importRentals(InputStream body, MediaType contentType, Authentication authentication)
+            throws IOException;
+
+    /**
+     * Écrit toutes les annonces dans un flux, au format CSV ou NDJSON.
+     *
+     * @param out    Flux de la réponse.
+     * @param format {@code csv} ou {@code ndjson}.
+     */
+    void exportRentals(OutputStream out, String format) throws IOException;
+}
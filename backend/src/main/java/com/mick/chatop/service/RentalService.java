@@ -2,7 +2,11 @@ package com.mick.chatop.service;
 
 import com.mick.chatop.dto.NewRentalDto;
 import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.dto.RentalPageDto;
+import com.mick.chatop.dto.TrendingRentalsDto;
 import com.mick.chatop.dto.UpdateRentalDto;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,11 +22,43 @@ public interface RentalService {
      */
     List<RentalDto> getAllRentals();
 
+    /**
+     * Récupère une page des locations de l'utilisateur connecté, de la plus récente à la plus ancienne.
+     *
+     * @param cursor         Curseur renvoyé par la page précédente, ou {@code null} pour la première page.
+     * @param size           Nombre de locations par page (borné à 100).
+     * @param authentication Utilisateur connecté.
+     * @return La page de locations et le curseur de la page suivante.
+     * @throws com.mick.chatop.exception.BadRequestException   Si le curseur est invalide.
+     * @throws com.mick.chatop.exception.UnauthorizedException Si l'utilisateur connecté est introuvable.
+     */
+    RentalPageDto getOwnerRentals(String cursor, int size, Authentication authentication);
+
+    /**
+     * Récupère les locations ayant reçu le plus de messages sur une fenêtre glissante.
+     *
+     * @param window Fenêtre : {@code 24h} ou {@code 7d}.
+     * @param limit  Nombre maximal de locations retournées.
+     * @return Le classement, de la plus contactée à la moins contactée.
+     * @throws com.mick.chatop.exception.BadRequestException Si la fenêtre n'est pas prise en charge.
+     */
+    TrendingRentalsDto getTrendingRentals(String window, int limit);
+
+    /**
+     * Ouvre un flux Server-Sent Events des créations et modifications d'annonces.
+     *
+     * @param lastEventId    Dernier événement reçu avant une reconnexion ({@code Last-Event-ID}), ou {@code null}.
+     * @param authentication Utilisateur connecté.
+     * @return L'émetteur SSE de la connexion.
+     */
+    SseEmitter streamRentalChanges(String lastEventId, Authentication authentication);
+
     /**
      * Récupère les détails d'une location spécifique à partir de son identifiant.
      *
      * @param id L'identifiant unique de la location.
-     * @return Un objet {@link RentalDto} correspondant à la location, ou {@code null} si non trouvée.
+     * @return Un objet {@link RentalDto} correspondant à la location.
+     * @throws com.mick.chatop.exception.ResourceNotFoundException Si la location n'existe pas.
      */
     RentalDto getRentalById(Integer id);
 
@@ -38,6 +74,11 @@ public interface RentalService {
      *
      * @param id                Identifiant de la location à mettre à jour.
      * @param updateRentalDto   Nouvelles données à appliquer à la location existante.
+     * @param expectedVersion   Version connue du client ({@code If-Match}), ou {@code null} pour ne pas la vérifier.
+     * @return La nouvelle version de la location.
+     * @throws com.mick.chatop.exception.ResourceNotFoundException   Si la location n'existe pas.
+     * @throws com.mick.chatop.exception.PreconditionFailedException Si la version attendue est périmée.
+     * @throws org.springframework.dao.OptimisticLockingFailureException Si une mise à jour concurrente a eu lieu.
      */
-    void updateRental(Integer id, UpdateRentalDto updateRentalDto);
+    Long updateRental(Integer id, UpdateRentalDto updateRentalDto, Long expectedVersion);
 }
\ No newline at end of file
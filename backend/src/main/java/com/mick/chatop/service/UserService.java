@@ -6,6 +6,9 @@ import com.mick.chatop.dto.RegisterRequest;
 import com.mick.chatop.dto.UserDto;
 import org.springframework.security.core.Authentication;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Interface définissant les opérations liées à l'authentification et à la gestion des utilisateurs.
  */
@@ -16,9 +19,9 @@ public interface UserService {
      *
      * @param loginRequest Données de connexion (email, mot de passe).
      * @return Une réponse contenant un token JWT si l'authentification est réussie.
-     * @throws Exception Si les identifiants sont invalides ou une erreur se produit.
+     * @throws org.springframework.security.core.AuthenticationException Si les identifiants sont invalides.
      */
-    AuthResponse login(LoginRequest loginRequest) throws Exception;
+    AuthResponse login(LoginRequest loginRequest);
 
     /**
      * Enregistre un nouvel utilisateur dans le système.
@@ -41,6 +44,7 @@ public interface UserService {
      *
      * @param id L'identifiant unique de l'utilisateur.
      * @return Un objet {@link UserDto} représentant l'utilisateur correspondant.
+     * @throws com.mick.chatop.exception.ResourceNotFoundException Si l'utilisateur n'existe pas.
      */
     UserDto getUserById(Integer id);
 
@@ -50,4 +54,12 @@ public interface UserService {
      * @param token Le token JWT à invalider.
      */
     void logout(String token);
+
+    /**
+     * Récupère les noms de plusieurs utilisateurs en une seule requête.
+     *
+     * @param ids Identifiants des utilisateurs (les identifiants inconnus sont ignorés).
+     * @return Les noms indexés par identifiant.
+     */
+    Map<Integer, String> getUserNames(Collection<Integer> ids);
 }
\ No newline at end of file
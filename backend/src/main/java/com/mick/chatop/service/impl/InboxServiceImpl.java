@@ -0,0 +1,80 @@
+package com.mick.chatop.service.impl;
+
+import com.mick.chatop.dto.ConversationDto;
+import com.mick.chatop.dto.InboxPageDto;
+import com.mick.chatop.exception.ResourceNotFoundException;
+import com.mick.chatop.exception.UnauthorizedException;
+import com.mick.chatop.pagination.KeysetCursor;
+import com.mick.chatop.repository.ConversationRepository;
+import com.mick.chatop.repository.UserRepository;
+import com.mick.chatop.service.InboxService;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implémentation du service de boîte de réception.
+ *
+ * Les conversations sont lues dans le modèle de lecture {@code conversations}, tenu à jour
+ * par l'écrivain de messages : aucune agrégation des messages n'est faite à la lecture.
+ * Le curseur réutilise le format des messages, sur {@code (last_message_at, id)}.
+ */
+@Service
+public class InboxServiceImpl implements InboxService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ConversationRepository conversationRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires au service.
+     *
+     * @param conversationRepository Repository des conversations.
+     * @param userRepository         Repository des utilisateurs.
+     */
+    public InboxServiceImpl(ConversationRepository conversationRepository, UserRepository userRepository) {
+        this.conversationRepository = conversationRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InboxPageDto getInbox(String cursor, int size, Authentication authentication) {
+        Integer ownerId = resolveCallerId(authentication);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        // Une ligne de plus que la taille de page est lue : sa présence indique qu'une page suivante existe
+        Limit limit = Limit.of(pageSize + 1);
+        List<ConversationDto> conversations;
+        if (cursor == null || cursor.isBlank()) {
+            conversations = conversationRepository.findLatestByOwner(ownerId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            conversations = conversationRepository.findByOwnerBefore(ownerId, after.createdAt(), after.id(), limit);
+        }
+
+        if (conversations.size() <= pageSize) {
+            return new InboxPageDto(conversations, null);
+        }
+        List<ConversationDto> page = conversations.subList(0, pageSize);
+        ConversationDto last = page.getLast();
+        return new InboxPageDto(page, new KeysetCursor(last.lastMessageAt(), last.id()).encode());
+    }
+
+    @Override
+    @Transactional
+    public void markAsRead(Integer conversationId, Authentication authentication) {
+        if (conversationRepository.markAsRead(conversationId, resolveCallerId(authentication)) == 0) {
+            throw ResourceNotFoundException.conversation();
+        }
+    }
+
+    private Integer resolveCallerId(Authentication authentication) {
+        return userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(UnauthorizedException::unauthenticated);
+    }
+}
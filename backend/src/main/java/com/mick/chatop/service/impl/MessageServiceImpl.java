@@ -1,73 +1,239 @@
 package com.mick.chatop.service.impl;
 
+import com.mick.chatop.dto.MessageDto;
+import com.mick.chatop.dto.MessagePageDto;
 import com.mick.chatop.dto.MessageRequestDto;
-import com.mick.chatop.entity.MessageEntity;
-import com.mick.chatop.entity.RentalEntity;
-import com.mick.chatop.entity.UserEntity;
+import com.mick.chatop.exception.ForbiddenException;
+import com.mick.chatop.exception.ResourceNotFoundException;
+import com.mick.chatop.exception.ServiceUnavailableException;
+import com.mick.chatop.exception.UnauthorizedException;
 import com.mick.chatop.mapper.MessageMapper;
+import com.mick.chatop.messaging.MessageBatchWriter;
+import com.mick.chatop.messaging.PendingMessage;
+import com.mick.chatop.pagination.KeysetCursor;
 import com.mick.chatop.repository.MessageRepository;
 import com.mick.chatop.repository.RentalRepository;
 import com.mick.chatop.repository.UserRepository;
 import com.mick.chatop.service.MessageService;
+import com.mick.chatop.streaming.MessageStreamBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implémentation du service de gestion des messages.
  * Cette classe gère la création de messages dans le système.
  * Ce service permet de créer un nouveau message lié à une location
  * et un utilisateur dans le système.
+ *
+ * Les messages ne sont pas enregistrés un par un : après une validation légère
+ * (existence de l'utilisateur et de l'annonce, sans chargement des entités),
+ * ils sont confiés au {@link MessageBatchWriter} qui les insère par lots.
  */
 @Service
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepository;
     private final MessageMapper messageMapper;
     private final UserRepository userRepository;
     private final RentalRepository rentalRepository;
+    private final MessageBatchWriter messageBatchWriter;
+    private final MessageStreamBroadcaster messageStreamBroadcaster;
+    private final Duration ackTimeout;
 
     /**
      * Constructeur avec injection des dépendances nécessaires au service.
      *
-     * @param messageRepository   Repository pour l'entité {@link MessageEntity}.
-     * @param messageMapper       Mapper permettant de transformer les DTO en entités.
-     * @param userRepository      Repository pour l'entité {@link UserEntity}.
-     * @param rentalRepository    Repository pour l'entité {@link RentalEntity}.
+     * @param messageRepository   Repository des messages (lectures paginées).
+     * @param messageMapper       Mapper permettant de transformer les DTO en messages à écrire.
+     * @param userRepository      Repository des utilisateurs.
+     * @param rentalRepository    Repository des locations.
+     * @param messageBatchWriter  Écrivain de messages par lots.
+     * @param messageStreamBroadcaster Diffusion des nouveaux messages aux propriétaires connectés.
+     * @param ackTimeout          Délai maximal d'attente du commit d'un message.
      */
     public MessageServiceImpl(
             MessageRepository messageRepository,
             MessageMapper messageMapper,
             UserRepository userRepository,
-            RentalRepository rentalRepository
+            RentalRepository rentalRepository,
+            MessageBatchWriter messageBatchWriter,
+            MessageStreamBroadcaster messageStreamBroadcaster,
+            @Value("${chatop.messages.ack-timeout:5s}") Duration ackTimeout
     ) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
         this.userRepository = userRepository;
         this.rentalRepository = rentalRepository;
+        this.messageBatchWriter = messageBatchWriter;
+        this.messageStreamBroadcaster = messageStreamBroadcaster;
+        this.ackTimeout = ackTimeout;
     }
 
     /**
      * Crée un nouveau message à partir des informations fournies dans le DTO.
      * <p>
      * Le message est lié à un utilisateur et une location existants. S'il manque l'un des deux,
-     * une exception est levée.
+     * une exception est levée. La méthode ne rend la main qu'une fois le lot contenant
+     * le message validé (commit) en base, ou à l'expiration du délai d'acquittement.
      *
      * @param messageRequestDto DTO contenant les informations du message (texte, userId, rentalId).
-     * @throws RuntimeException si l'utilisateur ou la location n'existe pas.
+     * @return {@code false} si le délai a expiré alors que le message était déjà en cours d'écriture.
+     * @throws ResourceNotFoundException   si l'utilisateur ou la location n'existe pas.
+     * @throws ServiceUnavailableException si le message a été retiré de la file sans être écrit.
+     */
+    @Override
+    public boolean createMessage(MessageRequestDto messageRequestDto) {
+        if (!userRepository.existsById(messageRequestDto.userId())) {
+            throw ResourceNotFoundException.user();
+        }
+        // Vérifie l'existence de l'annonce et lit son propriétaire (destinataire) en une seule requête
+        Integer ownerId = rentalRepository.findOwnerIdById(messageRequestDto.rentalId())
+                .orElseThrow(ResourceNotFoundException::rental);
+
+        PendingMessage pendingMessage = messageMapper.toPendingMessage(messageRequestDto, ownerId, LocalDateTime.now());
+        messageBatchWriter.submit(pendingMessage);
+        return awaitCommit(pendingMessage);
+    }
+
+    /**
+     * Lit une page des messages d'une annonce, réservée à son propriétaire.
+     *
+     * @throws ResourceNotFoundException si l'annonce n'existe pas.
+     * @throws ForbiddenException        si l'utilisateur connecté n'est pas le propriétaire.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MessagePageDto getRentalMessages(Integer rentalId, String cursor, int size, Authentication authentication) {
+        Integer ownerId = rentalRepository.findOwnerIdById(rentalId)
+                .orElseThrow(ResourceNotFoundException::rental);
+        if (!ownerId.equals(resolveCallerId(authentication))) {
+            throw ForbiddenException.accessDenied();
+        }
+
+        Limit limit = Limit.of(pageSize(size) + 1);
+        List<MessageDto> messages;
+        if (cursor == null || cursor.isBlank()) {
+            messages = messageRepository.findLatestByRental(rentalId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            messages = messageRepository.findByRentalBefore(rentalId, after.createdAt(), after.id(), limit);
+        }
+        return toPage(messages, pageSize(size));
+    }
+
+    /**
+     * Lit une page des messages envoyés par l'utilisateur connecté.
+     *
+     * @throws ForbiddenException si l'utilisateur demandé n'est pas l'utilisateur connecté.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MessagePageDto getUserMessages(Integer userId, String cursor, int size, Authentication authentication) {
+        if (!userId.equals(resolveCallerId(authentication))) {
+            throw ForbiddenException.accessDenied();
+        }
+
+        Limit limit = Limit.of(pageSize(size) + 1);
+        List<MessageDto> messages;
+        if (cursor == null || cursor.isBlank()) {
+            messages = messageRepository.findLatestByUser(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            messages = messageRepository.findByUserBefore(userId, after.createdAt(), after.id(), limit);
+        }
+        return toPage(messages, pageSize(size));
+    }
+
+    /**
+     * Ouvre le flux des messages reçus par l'utilisateur connecté. Les messages sont poussés
+     * après leur commit, sans rallonger la requête qui les a créés.
      */
     @Override
-    public void createMessage(MessageRequestDto messageRequestDto) {
-        UserEntity user = userRepository.findById(messageRequestDto.userId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public SseEmitter streamMessages(Authentication authentication) {
+        return messageStreamBroadcaster.subscribe(resolveCallerId(authentication));
+    }
+
+    private Integer resolveCallerId(Authentication authentication) {
+        return userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(UnauthorizedException::unauthenticated);
+    }
+
+    private static int pageSize(int size) {
+        return Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Une ligne de plus que la taille de page est lue : sa présence indique qu'une page suivante existe.
+     */
+    private static MessagePageDto toPage(List<MessageDto> messages, int pageSize) {
+        if (messages.size() <= pageSize) {
+            return new MessagePageDto(messages, null);
+        }
+        List<MessageDto> page = messages.subList(0, pageSize);
+        return new MessagePageDto(page, new KeysetCursor(page.getLast().createdAt(), page.getLast().id()).encode());
+    }
 
-        RentalEntity rental = rentalRepository.findById(messageRequestDto.rentalId())
-                .orElseThrow(() -> new RuntimeException("Rental not found"));
+    /**
+     * Un message n'est déclaré en échec (503, à renvoyer) que s'il a pu être retiré de la file :
+     * un message déjà pris par un écrivain sera validé, et le renvoyer créerait un doublon.
+     */
+    private boolean awaitCommit(PendingMessage pendingMessage) {
+        try {
+            pendingMessage.completion().get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            if (messageBatchWriter.withdraw(pendingMessage)) {
+                throw new ServiceUnavailableException("Message not saved in time, please retry later");
+            }
+            return outcomeOfTakenMessage(pendingMessage);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (messageBatchWriter.withdraw(pendingMessage)) {
+                throw new ServiceUnavailableException("Message sending interrupted");
+            }
+            return outcomeOfTakenMessage(pendingMessage);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
 
-        MessageEntity messageEntity = messageMapper.toEntity(rental, user, messageRequestDto);
-        messageEntity.setCreated_at(LocalDateTime.now());
-        messageEntity.setUpdated_at(LocalDateTime.now());
+    /**
+     * Issue d'un message que l'écrivain a déjà retiré de la file : le lot a pu se terminer
+     * entre l'expiration du délai et le retrait. Seule une écriture réellement en cours
+     * donne {@code false} (202) ; un échec déjà connu est propagé.
+     */
+    private static boolean outcomeOfTakenMessage(PendingMessage pendingMessage) {
+        CompletableFuture<Void> completion = pendingMessage.completion();
+        if (!completion.isDone()) {
+            return false;
+        }
+        try {
+            completion.getNow(null);
+            return true;
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
 
-        messageRepository.save(messageEntity);
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Message could not be saved", cause);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,368 @@
+package com.mick.chatop.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mick.chatop.bulk.BulkMediaTypes;
+import com.mick.chatop.bulk.CsvRentalRowReader;
+import com.mick.chatop.bulk.NdjsonRentalRowReader;
+import com.mick.chatop.bulk.RentalImportRow;
+import com.mick.chatop.bulk.RentalRowReader;
+import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.dto.RentalImportErrorDto;
+import com.mick.chatop.dto.RentalImportReportDto;
+import com.mick.chatop.exception.BadRequestException;
+import com.mick.chatop.exception.UnauthorizedException;
+import com.mick.chatop.repository.UserRepository;
+import com.mick.chatop.service.RentalBulkService;
+import com.mick.chatop.storage.ImageStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de l'import et de l'export en masse des annonces.
+ *
+ * Import : le fichier est lu en flux, ligne par ligne ; les lignes valides sont regroupées en lots
+ * de {@code chatop.import.chunk-size} et insérées par batch JDBC, un lot par transaction.
+ * La mémoire utilisée ne dépend donc que de la taille d'un lot, pas de celle du fichier.
+ * Si un lot échoue, ses lignes sont réinsérées une par une pour isoler et signaler les fautives.
+ *
+ * Export : les annonces sont lues avec un curseur côté serveur ({@code useCursorFetch}) et écrites
+ * au fil de l'eau dans la réponse, dans une transaction en lecture seule.
+ */
+@Service
+public class RentalBulkServiceImpl implements RentalBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalBulkServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int PICTURE_MAX_LENGTH = 255;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO rentals (name, surface, price, description, picture, owner_id, created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)""";
+    private static final String EXPORT_SQL = """
+            SELECT r.id, r.name, r.surface, r.price, r.description, r.picture, r.owner_id, r.created_at, r.updated_at,
+                   r.version, COALESCE(s.views, 0) AS views
+            FROM rentals r LEFT JOIN rental_stats s ON s.rental_id = r.id
+            ORDER BY r.id""";
+    private static final String CSV_HEADER = "id,name,surface,price,description,picture,owner_id,created_at,updated_at,version,views\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final UserRepository userRepository;
+    private final ImageStorage imageStorage;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Constructeur avec injection des dépendances nécessaires au service.
+     *
+     * @param dataSource         Source de données (insertions par batch et curseur d'export).
+     * @param transactionManager Gestionnaire des transactions (une par lot).
+     * @param userRepository     Repository des utilisateurs.
+     * @param imageStorage       Stockage des images, pour vérifier les références de fichiers.
+     * @param objectMapper       Sérialisation JSON (NDJSON).
+     * @param chunkSize          Nombre de lignes insérées par transaction.
+     * @param fetchSize          Nombre de lignes lues par aller-retour lors de l'export.
+     */
+    public RentalBulkServiceImpl(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 UserRepository userRepository,
+                                 ImageStorage imageStorage,
+                                 ObjectMapper objectMapper,
+                                 @Value("${chatop.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${chatop.export.fetch-size:1000}") int fetchSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chatop.import.chunk-size must be a positive number");
+        }
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("chatop.export.fetch-size must be a positive number");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.userRepository = userRepository;
+        this.imageStorage = imageStorage;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public RentalImportReportDto importRentals(InputStream body, MediaType contentType, Authentication authentication)
+            throws IOException {
+        Integer ownerId = userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(UnauthorizedException::unauthenticated);
+        String imageBaseUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/rentals/image/")
+                .toUriString();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RentalRowReader rows;
+        if (contentType != null && BulkMediaTypes.TEXT_CSV.isCompatibleWith(contentType)) {
+            rows = new CsvRentalRowReader(reader);
+        } else if (contentType != null && BulkMediaTypes.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            rows = new NdjsonRentalRowReader(reader, objectMapper);
+        } else {
+            throw new BadRequestException("Unsupported import format, expected text/csv or application/x-ndjson");
+        }
+
+        ImportReport report = new ImportReport();
+        List<ValidRow> chunk = new ArrayList<>(chunkSize);
+        RentalImportRow row;
+        while ((row = rows.next()) != null) {
+            try {
+                chunk.add(validate(row, ownerId, imageBaseUrl));
+            } catch (IllegalArgumentException e) {
+                report.reject(row.line(), e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, report);
+        }
+        return report.toDto();
+    }
+
+    @Override
+    public void exportRentals(OutputStream out, String format) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+                RentalDto rental = new RentalDto(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getDouble("surface"),
+                        rs.getDouble("price"),
+                        rs.getString("description"),
+                        rs.getString("picture"),
+                        rs.getInt("owner_id"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("updated_at").toLocalDateTime(),
+                        rs.getLong("version"),
+                        rs.getLong("views"));
+                try {
+                    if (csv) {
+                        writeCsv(writer, rental);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(rental));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Client déconnecté pendant l'export : la lecture est interrompue et la connexion rendue
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Valide une ligne et la convertit en ligne prête à insérer.
+     *
+     * @throws IllegalArgumentException Si la ligne est invalide (le message est le motif du rejet).
+     */
+    private ValidRow validate(RentalImportRow row, Integer ownerId, String imageBaseUrl) {
+        if (row.error() != null) {
+            throw new IllegalArgumentException(row.error());
+        }
+        if (row.name() == null || row.name().isBlank()) {
+            throw new IllegalArgumentException("The name field is required.");
+        }
+        if (row.name().length() > 255) {
+            throw new IllegalArgumentException("The name must not exceed 255 characters.");
+        }
+        if (row.description() == null || row.description().isBlank()) {
+            throw new IllegalArgumentException("The description field is required.");
+        }
+        if (row.description().length() > 2000) {
+            throw new IllegalArgumentException("The description must not exceed 2000 characters.");
+        }
+        return new ValidRow(row.line(), row.name(), number(row.surface(), "surface"), number(row.price(), "price"),
+                row.description(), pictureUrl(row.picture(), imageBaseUrl), ownerId);
+    }
+
+    private static double number(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("The " + field + " field is required.");
+        }
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (!Double.isFinite(number) || number <= 0) {
+                throw new IllegalArgumentException("The " + field + " must be a positive number.");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + field + " must be a number.");
+        }
+    }
+
+    /**
+     * Une référence d'image est soit une URL absolue (http/https), soit le nom d'un fichier
+     * déjà présent dans le stockage des images.
+     */
+    private String pictureUrl(String picture, String imageBaseUrl) {
+        if (picture == null || picture.isBlank()) {
+            throw new IllegalArgumentException("A photo is required.");
+        }
+        String reference = picture.trim();
+        String url;
+        if (reference.startsWith("http://") || reference.startsWith("https://")) {
+            URI.create(reference);
+            url = reference;
+        } else if (imageStorage.exists(reference)) {
+            url = imageBaseUrl + reference;
+        } else {
+            throw new IllegalArgumentException("Unknown image file: " + reference);
+        }
+        if (url.length() > PICTURE_MAX_LENGTH) {
+            throw new IllegalArgumentException("The picture reference is too long.");
+        }
+        return url;
+    }
+
+    private void insertChunk(List<ValidRow> chunk, ImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            report.imported(chunk.size());
+        } catch (DataAccessException chunkFailure) {
+            logger.warn("Échec d'un lot d'import de {} lignes, insertion unitaire : {}", chunk.size(), chunkFailure.getMessage());
+            for (ValidRow row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    report.imported(1);
+                } catch (DataAccessException e) {
+                    report.reject(row.line(), "Rejected by the database");
+                }
+            }
+        }
+    }
+
+    private void insert(List<ValidRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ValidRow row = rows.get(i);
+                ps.setString(1, row.name());
+                ps.setDouble(2, row.surface());
+                ps.setDouble(3, row.price());
+                ps.setString(4, row.description());
+                ps.setString(5, row.picture());
+                ps.setInt(6, row.ownerId());
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static void writeCsv(Writer writer, RentalDto rental) throws IOException {
+        writer.write(String.valueOf(rental.id()));
+        writer.write(',');
+        writer.write(csvField(rental.name()));
+        writer.write(',');
+        writer.write(String.valueOf(rental.surface()));
+        writer.write(',');
+        writer.write(String.valueOf(rental.price()));
+        writer.write(',');
+        writer.write(csvField(rental.description()));
+        writer.write(',');
+        writer.write(csvField(rental.picture()));
+        writer.write(',');
+        writer.write(String.valueOf(rental.ownerId()));
+        writer.write(',');
+        writer.write(rental.createdAt().toString());
+        writer.write(',');
+        writer.write(rental.updatedAt().toString());
+        writer.write(',');
+        writer.write(String.valueOf(rental.version()));
+        writer.write(',');
+        writer.write(String.valueOf(rental.views()));
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record ValidRow(long line, String name, double surface, double price,
+                            String description, String picture, Integer ownerId) {
+    }
+
+    /**
+     * Compteurs de l'import ; seules les premières erreurs sont détaillées, pour borner la mémoire.
+     */
+    private static final class ImportReport {
+
+        private long imported;
+        private long rejected;
+        private final List<RentalImportErrorDto> errors = new ArrayList<>();
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RentalImportErrorDto(line, reason));
+            }
+        }
+
+        RentalImportReportDto toDto() {
+            return new RentalImportReportDto(imported, rejected, errors, rejected > errors.size());
+        }
+    }
+}
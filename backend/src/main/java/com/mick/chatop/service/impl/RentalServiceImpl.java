@@ -2,29 +2,44 @@ package com.mick.chatop.service.impl;
 
 import com.mick.chatop.dto.NewRentalDto;
 import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.dto.RentalPageDto;
+import com.mick.chatop.dto.TrendingRentalDto;
+import com.mick.chatop.dto.TrendingRentalsDto;
 import com.mick.chatop.dto.UpdateRentalDto;
 import com.mick.chatop.entity.RentalEntity;
 import com.mick.chatop.entity.UserEntity;
+import com.mick.chatop.exception.PreconditionFailedException;
+import com.mick.chatop.exception.ResourceNotFoundException;
+import com.mick.chatop.exception.UnauthorizedException;
 import com.mick.chatop.mapper.RentalMapper;
+import com.mick.chatop.pagination.KeysetCursor;
 import com.mick.chatop.repository.RentalRepository;
 import com.mick.chatop.repository.UserRepository;
 import com.mick.chatop.service.RentalService;
-import org.springframework.beans.factory.annotation.Value;
+import com.mick.chatop.stats.RentalViewCounter;
+import com.mick.chatop.stats.TrendingRentals;
+import com.mick.chatop.streaming.RentalChangedEvent;
+import com.mick.chatop.streaming.RentalStreamBroadcaster;
+import com.mick.chatop.storage.ImageStorage;
+import com.mick.chatop.storage.StagedImage;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.IOException;
-import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -35,24 +50,49 @@ import java.util.stream.Collectors;
 @Service
 public class RentalServiceImpl implements RentalService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
     private final UserRepository userRepository;
-
-    @Value("${file.storage.location}")
-    private String uploadDir;
+    private final ImageStorage imageStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final RentalViewCounter rentalViewCounter;
+    private final TrendingRentals trendingRentals;
+    private final RentalStreamBroadcaster rentalStreamBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructeur injectant les dépendances nécessaires.
      *
-     * @param rentalRepository Repository des locations.
-     * @param rentalMapper     Mapper de conversion entité/DTO.
-     * @param userRepository   Repository des utilisateurs.
+     * @param rentalRepository   Repository des locations.
+     * @param rentalMapper       Mapper de conversion entité/DTO.
+     * @param userRepository     Repository des utilisateurs.
+     * @param imageStorage       Stockage des images en deux phases.
+     * @param transactionManager Gestionnaire des transactions courtes d'écriture.
+     * @param rentalViewCounter  Compteurs de vues, écrits par lots.
+     * @param trendingRentals    Classement en mémoire des annonces les plus contactées.
+     * @param rentalStreamBroadcaster Diffusion des changements d'annonces aux clients connectés.
+     * @param eventPublisher     Publication des changements, diffusés après le commit.
      */
-    public RentalServiceImpl(RentalRepository rentalRepository, RentalMapper rentalMapper, UserRepository userRepository) {
+    public RentalServiceImpl(RentalRepository rentalRepository,
+                             RentalMapper rentalMapper,
+                             UserRepository userRepository,
+                             ImageStorage imageStorage,
+                             PlatformTransactionManager transactionManager,
+                             RentalViewCounter rentalViewCounter,
+                             TrendingRentals trendingRentals,
+                             RentalStreamBroadcaster rentalStreamBroadcaster,
+                             ApplicationEventPublisher eventPublisher) {
         this.rentalRepository = rentalRepository;
         this.rentalMapper = rentalMapper;
         this.userRepository = userRepository;
+        this.imageStorage = imageStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rentalViewCounter = rentalViewCounter;
+        this.trendingRentals = trendingRentals;
+        this.rentalStreamBroadcaster = rentalStreamBroadcaster;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -61,6 +101,7 @@ public class RentalServiceImpl implements RentalService {
      * @return Liste de {@link RentalDto}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<RentalDto> getAllRentals() {
         return rentalRepository.findAll()
                 .stream()
@@ -69,76 +110,194 @@ public class RentalServiceImpl implements RentalService {
     }
 
     /**
-     * Récupère une location par son identifiant.
+     * Récupère une page des locations de l'utilisateur connecté.
+     * <p>
+     * L'identifiant de l'utilisateur est résolu une seule fois, puis la page est lue par un parcours
+     * de plage de l'index {@code (owner_id, created_at, id)}, sans charger le propriétaire.
+     * Une ligne de plus que la taille de page est lue : sa présence indique qu'une page suivante existe.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RentalPageDto getOwnerRentals(String cursor, int size, Authentication authentication) {
+        Integer ownerId = userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(UnauthorizedException::unauthenticated);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        Limit limit = Limit.of(pageSize + 1);
+        List<RentalDto> rentals;
+        if (cursor == null || cursor.isBlank()) {
+            rentals = rentalRepository.findByOwnerId(ownerId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rentals = rentalRepository.findByOwnerIdBefore(ownerId, after.createdAt(), after.id(), limit);
+        }
+
+        if (rentals.size() <= pageSize) {
+            return new RentalPageDto(rentals, null);
+        }
+        List<RentalDto> page = rentals.subList(0, pageSize);
+        return new RentalPageDto(page, new KeysetCursor(page.getLast().createdAt(), page.getLast().id()).encode());
+    }
+
+    /**
+     * Lit le classement tenu à jour en mémoire : aucune requête SQL.
+     */
+    @Override
+    public TrendingRentalsDto getTrendingRentals(String window, int limit) {
+        TrendingRentals.Window trendingWindow = TrendingRentals.Window.parse(window);
+        List<TrendingRentalDto> rentals = trendingRentals.top(trendingWindow, Math.clamp(limit, 1, MAX_PAGE_SIZE))
+                .stream()
+                .map(entry -> new TrendingRentalDto(entry.rentalId(), entry.messages()))
+                .toList();
+        return new TrendingRentalsDto(trendingWindow.label(), rentals);
+    }
+
+    /**
+     * Ouvre le flux des changements d'annonces ; les changements sont poussés après leur commit,
+     * sans rallonger la requête qui les a écrits.
+     */
+    @Override
+    public SseEmitter streamRentalChanges(String lastEventId, Authentication authentication) {
+        Integer userId = userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(UnauthorizedException::unauthenticated);
+        return rentalStreamBroadcaster.subscribe(userId, lastEventId);
+    }
+
+    /**
+     * Récupère une location par son identifiant et compte la consultation
+     * (en mémoire : aucune écriture dans la transaction de lecture).
      *
      * @param id Identifiant de la location.
-     * @return {@link RentalDto} si trouvé, sinon null.
+     * @return {@link RentalDto} correspondant.
+     * @throws ResourceNotFoundException Si la location n'existe pas.
      */
     @Override
+    @Transactional(readOnly = true)
     public RentalDto getRentalById(Integer id) {
-        return rentalRepository.findById(id)
+        RentalDto rental = rentalRepository.findById(id)
                 .map(rentalMapper::toDTO)
-                .orElse(null);
+                .orElseThrow(ResourceNotFoundException::rental);
+        rentalViewCounter.recordView(id);
+        return rental;
     }
 
     /**
      * Crée une nouvelle location avec image (optionnelle) et utilisateur connecté.
+     * <p>
+     * L'image est d'abord écrite en transit, hors transaction ; la transaction ne contient
+     * que l'insertion et l'image n'est publiée qu'après son commit.
      *
      * @param rentalDto Données de la location à créer.
-     * @throws RuntimeException En cas d'erreur sur l'image ou utilisateur introuvable.
+     * @throws UnauthorizedException Si l'utilisateur connecté est introuvable.
+     * @throws UncheckedIOException  En cas d'erreur d'écriture de l'image.
      */
     @Override
     public void createRental(NewRentalDto rentalDto) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        UserEntity owner = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Unauthenticated user"));
-
-        RentalEntity rentalEntity = rentalMapper.toEntity(rentalDto);
-        rentalEntity.setOwner(owner);
+        StagedImage picture = imageStorage.stage(rentalDto.picture());
+        String pictureUrl = getImageUrl(picture.filename());
 
         try {
-            rentalEntity.setPicture(getImageUrl(saveFile(rentalDto.picture())));
-        } catch (IOException e) {
-            throw new RuntimeException("There was a problem with the photo : " + e.getMessage());
-        }
+            transactionTemplate.executeWithoutResult(status -> {
+                UserEntity owner = userRepository.findByEmail(email)
+                        .orElseThrow(UnauthorizedException::unauthenticated);
 
-        LocalDateTime now = LocalDateTime.now();
-        rentalEntity.setCreated_at(now);
-        rentalEntity.setUpdated_at(now);
+                RentalEntity rentalEntity = rentalMapper.toEntity(rentalDto);
+                rentalEntity.setOwner(owner);
+                rentalEntity.setPicture(pictureUrl);
 
-        rentalRepository.save(rentalEntity);
+                LocalDateTime now = LocalDateTime.now();
+                rentalEntity.setCreated_at(now);
+                rentalEntity.setUpdated_at(now);
+
+                imageStorage.publishOnCommit(picture, null);
+                RentalEntity saved = rentalRepository.save(rentalEntity);
+                eventPublisher.publishEvent(RentalChangedEvent.created(rentalMapper.toDTO(saved)));
+            });
+        } catch (RuntimeException e) {
+            imageStorage.discard(picture);
+            throw e;
+        }
     }
 
     /**
      * Met à jour les informations d'une location existante, avec gestion facultative d'une nouvelle image.
+     * <p>
+     * La version attendue ({@code If-Match}) est vérifiée avant d'écrire la nouvelle image en transit,
+     * puis de nouveau dans la transaction, et enfin par Hibernate lors du flush
+     * ({@code UPDATE ... WHERE version = ?}). La transaction ne contient que le travail SQL :
+     * la nouvelle image est publiée et l'ancienne supprimée après le commit ; en cas d'échec,
+     * seule l'image en transit est supprimée.
      *
      * @param id               ID de la location à mettre à jour.
      * @param updateRentalDto  Données de mise à jour.
-     * @throws NoSuchElementException Si la location n'existe pas.
+     * @param expectedVersion  Version attendue, ou {@code null}.
+     * @return La nouvelle version de la location.
+     * @throws ResourceNotFoundException   Si la location n'existe pas.
+     * @throws PreconditionFailedException Si la version attendue est périmée.
      */
     @Override
-    public void updateRental(Integer id, UpdateRentalDto updateRentalDto) {
-        RentalEntity existingRental = rentalRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Rental not found"));
-
-        existingRental.setName(updateRentalDto.name());
-        existingRental.setSurface(updateRentalDto.surface());
-        existingRental.setPrice(updateRentalDto.price());
-        existingRental.setDescription(updateRentalDto.description());
-        existingRental.setUpdated_at(LocalDateTime.now());
-
+    public Long updateRental(Integer id, UpdateRentalDto updateRentalDto, Long expectedVersion) {
         MultipartFile newPicture = updateRentalDto.picture();
+        StagedImage stagedPicture = null;
         if (newPicture != null && !newPicture.isEmpty()) {
-            removeOldFileIfNeeded(existingRental.getPicture());
-            try {
-                String savedFilename = saveFile(newPicture);
-                existingRental.setPicture(getImageUrl(savedFilename));
-            } catch (IOException e) {
-                throw new RuntimeException("There was a problem with the new photo : " + e.getMessage());
+            // Vérification préalable peu coûteuse : inutile d'écrire l'image si la version est déjà périmée
+            Long currentVersion = rentalRepository.findVersionById(id)
+                    .orElseThrow(ResourceNotFoundException::rental);
+            checkVersion(expectedVersion, currentVersion);
+            stagedPicture = imageStorage.stage(newPicture);
+        }
+        StagedImage picture = stagedPicture;
+
+        try {
+            return transactionTemplate.execute(status -> {
+                RentalEntity existingRental = rentalRepository.findById(id)
+                        .orElseThrow(ResourceNotFoundException::rental);
+                checkVersion(expectedVersion, existingRental.getVersion());
+
+                Map<String, Object> changes = new LinkedHashMap<>();
+                putIfChanged(changes, "name", existingRental.getName(), updateRentalDto.name());
+                putIfChanged(changes, "surface", existingRental.getSurface(), updateRentalDto.surface());
+                putIfChanged(changes, "price", existingRental.getPrice(), updateRentalDto.price());
+                putIfChanged(changes, "description", existingRental.getDescription(), updateRentalDto.description());
+
+                existingRental.setName(updateRentalDto.name());
+                existingRental.setSurface(updateRentalDto.surface());
+                existingRental.setPrice(updateRentalDto.price());
+                existingRental.setDescription(updateRentalDto.description());
+                existingRental.setUpdated_at(LocalDateTime.now());
+
+                if (picture != null) {
+                    imageStorage.publishOnCommit(picture, existingRental.getPicture());
+                    existingRental.setPicture(getImageUrl(picture.filename()));
+                    changes.put("picture", existingRental.getPicture());
+                }
+
+                // Flush immédiat : un conflit de version est détecté ici, dans la transaction
+                RentalEntity saved = rentalRepository.saveAndFlush(existingRental);
+                changes.put("updatedAt", saved.getUpdated_at());
+                changes.put("version", saved.getVersion());
+                eventPublisher.publishEvent(RentalChangedEvent.updated(id, changes));
+                return saved.getVersion();
+            });
+        } catch (RuntimeException e) {
+            if (picture != null) {
+                imageStorage.discard(picture);
             }
+            throw e;
         }
+    }
 
-        rentalRepository.save(existingRental);
+    private static void putIfChanged(Map<String, Object> changes, String field, Object current, Object updated) {
+        if (!Objects.equals(current, updated)) {
+            changes.put(field, updated);
+        }
+    }
+
+    private static void checkVersion(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw PreconditionFailedException.staleVersion();
+        }
     }
 
     /**
@@ -153,52 +312,4 @@ public class RentalServiceImpl implements RentalService {
                 .path(filename)
                 .toUriString();
     }
-
-    /**
-     * Sauvegarde un fichier image après validation du type et de l'extension.
-     *
-     * @param file Fichier Multipart à sauvegarder.
-     * @return Nom du fichier sauvegardé.
-     * @throws IOException En cas d'erreur d'accès disque.
-     */
-    private String saveFile(MultipartFile file) throws IOException {
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("Only image files are allowed.");
-        }
-
-        String originalName = file.getOriginalFilename();
-        if (originalName == null || !originalName.matches("(?i).+\\.(jpg|jpeg|png|gif)$")) {
-            throw new IllegalArgumentException("File extension not allowed. Allowed: jpg, jpeg, png, gif.");
-        }
-
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        String fileName = UUID.randomUUID() + "_" + originalName;
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return fileName;
-    }
-
-    /**
-     * Supprime l'ancien fichier image associé à une location si présent.
-     *
-     * @param oldImageUrl URL publique de l'image à supprimer.
-     */
-    private void removeOldFileIfNeeded(String oldImageUrl) {
-        if (oldImageUrl == null) return;
-
-        String filename = Paths.get(URI.create(oldImageUrl).getPath()).getFileName().toString();
-        Path fileToDelete = Paths.get(uploadDir).resolve(filename);
-
-        try {
-            Files.deleteIfExists(fileToDelete);
-        } catch (IOException e) {
-            System.err.println("Unable to delete old photo : " + e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
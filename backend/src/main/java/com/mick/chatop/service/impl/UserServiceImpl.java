@@ -3,9 +3,13 @@ package com.mick.chatop.service.impl;
 import com.mick.chatop.dto.AuthResponse;
 import com.mick.chatop.dto.LoginRequest;
 import com.mick.chatop.dto.RegisterRequest;
+import com.mick.chatop.dto.UserNameDto;
 import com.mick.chatop.dto.UserDto;
 import com.mick.chatop.entity.TokenEntity;
 import com.mick.chatop.entity.UserEntity;
+import com.mick.chatop.exception.BadRequestException;
+import com.mick.chatop.exception.ResourceNotFoundException;
+import com.mick.chatop.exception.UnauthorizedException;
 import com.mick.chatop.mapper.UserMapper;
 import com.mick.chatop.repository.TokenRepository;
 import com.mick.chatop.repository.UserRepository;
@@ -20,10 +24,14 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Implémentation du service utilisateur {@link UserService}.
@@ -87,7 +95,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public AuthResponse register(RegisterRequest registerRequest) {
         if (userRepository.findByEmail(registerRequest.email()).isPresent()) {
-            throw new IllegalArgumentException("Email already in use");
+            throw new BadRequestException("Registration failed : Email already in use");
         }
 
         String hashedPassword = passwordEncoder.encode(registerRequest.password());
@@ -117,16 +125,30 @@ public class UserServiceImpl implements UserService {
     public UserDto getAuthenticatedUser(Authentication authentication) {
         String email = authentication.getName();
         UserEntity user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User does not exist"));
+                .orElseThrow(UnauthorizedException::unauthenticated);
         return userMapper.toDto(user);
     }
     // Méthode pour récupérer un utilisateur par son ID
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Integer id) {
         UserEntity user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User does not exist"));
+                .orElseThrow(ResourceNotFoundException::user);
         return userMapper.toDto(user);
     }
+    // Méthode pour récupérer les noms de plusieurs utilisateurs (une seule requête IN)
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, String> getUserNames(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, String> names = new HashMap<>();
+        for (UserNameDto user : userRepository.findNamesByIdIn(ids)) {
+            names.put(user.id(), user.name());
+        }
+        return names;
+    }
     // Méthode pour gérer la déconnexion de l'utilisateur
     @Override
     public void logout(String token) {
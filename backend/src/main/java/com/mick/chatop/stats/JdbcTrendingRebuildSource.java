@@ -0,0 +1,48 @@
+package com.mick.chatop.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Relit les messages dans une transaction en lecture seule (réplica le cas échéant), en flux
+ * ({@code rebuild-fetch-size} lignes par aller-retour). La borne {@code MAX(id)} est lue dans la même
+ * transaction que le parcours, donc sur le même instantané.
+ */
+@Component
+public class JdbcTrendingRebuildSource implements TrendingRebuildSource {
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM messages";
+    private static final String REBUILD_SQL =
+            "SELECT rental_id, created_at FROM messages WHERE created_at >= ? AND id <= ?";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public JdbcTrendingRebuildSource(DataSource dataSource,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${chatop.trending.rebuild-fetch-size:1000}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public long scan(LocalDateTime since, MessageVisitor visitor) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            Long maxId = streamingJdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            streamingJdbcTemplate.query(REBUILD_SQL,
+                    (RowCallbackHandler) rs -> visitor.accept(rs.getInt(1), rs.getTimestamp(2).toLocalDateTime()),
+                    Timestamp.valueOf(since), maxId);
+            return maxId;
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.mick.chatop.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de vues des annonces, agrégés en mémoire puis écrits périodiquement ("write-behind").
+ *
+ * Un {@code UPDATE rentals SET views = views + 1} à chaque consultation verrouillerait la ligne
+ * des annonces populaires. Ici, une consultation n'incrémente qu'un {@link LongAdder} (répartition
+ * des incréments entre cellules, sans verrou) ; les deltas sont ensuite ajoutés à la table
+ * {@code rental_stats} par un upsert JDBC en lot, une ligne par annonce consultée pendant l'intervalle.
+ *
+ * Une annonce sans nouvelle vue pendant un intervalle complet est retirée de la map, dont la taille
+ * reste bornée par {@code chatop.views.max-entries} (au-delà, les vues ne sont pas comptées).
+ * Un arrêt brutal perd au plus les vues d'un intervalle ; en cas d'échec de l'écriture,
+ * les deltas sont remis en attente.
+ */
+@Component
+public class RentalViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalViewCounter.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO rental_stats (rental_id, views, updated_at) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE views = views + VALUES(views), updated_at = VALUES(updated_at)""";
+
+    private final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final Counter droppedViews;
+
+    public RentalViewCounter(JdbcTemplate jdbcTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${chatop.views.max-entries:100000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+        this.droppedViews = Counter.builder("chatop.rentals.views.dropped")
+                .description("Rental views not counted because too many rentals were pending")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("chatop.rentals.views.pending", List.of(), pending);
+    }
+
+    /**
+     * Compte une consultation de l'annonce ; sans accès à la base.
+     */
+    public void recordView(Integer rentalId) {
+        LongAdder views = pending.get(rentalId);
+        if (views == null) {
+            if (pending.size() >= maxEntries) {
+                droppedViews.increment();
+                return;
+            }
+            views = pending.computeIfAbsent(rentalId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    /**
+     * Écrit les vues accumulées depuis la dernière écriture.
+     */
+    @Scheduled(fixedDelayString = "${chatop.views.flush-interval-ms:5000}")
+    public void flush() {
+        List<Map.Entry<Integer, Long>> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setInt(1, deltas.get(i).getKey());
+                    ps.setLong(2, deltas.get(i).getValue());
+                    ps.setTimestamp(3, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return deltas.size();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Échec de l'écriture des vues de {} annonce(s), nouvel essai au prochain intervalle : {}",
+                    deltas.size(), e.getMessage());
+            deltas.forEach(delta -> pending.computeIfAbsent(delta.getKey(), id -> new LongAdder()).add(delta.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Relève et remet à zéro les compteurs, triés par annonce : les lignes de {@code rental_stats}
+     * sont verrouillées dans le même ordre par toutes les instances. Les compteurs restés à zéro
+     * depuis la relève précédente sont retirés.
+     *
+     * Un incrément concurrent d'un compteur en cours de retrait peut être perdu, comme lors d'un arrêt brutal.
+     */
+    List<Map.Entry<Integer, Long>> drain() {
+        List<Map.Entry<Integer, Long>> deltas = new ArrayList<>();
+        pending.forEach((rentalId, views) -> {
+            long delta = views.sumThenReset();
+            if (delta > 0) {
+                deltas.add(Map.entry(rentalId, delta));
+            } else {
+                pending.remove(rentalId, views);
+            }
+        });
+        deltas.sort(Map.Entry.comparingByKey());
+        return deltas;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mick.chatop.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Messages relus au démarrage pour reconstruire le classement des annonces ({@link TrendingRentals}).
+ */
+public interface TrendingRebuildSource {
+
+    /**
+     * Parcourt en flux les messages enregistrés depuis {@code since}.
+     *
+     * @param since   Date du plus ancien message à relire.
+     * @param visitor Reçoit l'annonce et la date de chaque message.
+     * @return L'identifiant du dernier message parcouru : les messages suivants arrivent par événement.
+     */
+    long scan(LocalDateTime since, MessageVisitor visitor);
+
+    @FunctionalInterface
+    interface MessageVisitor {
+        void accept(int rentalId, LocalDateTime createdAt);
+    }
+}
@@ -0,0 +1,277 @@
+package com.mick.chatop.stats;
+
+import com.mick.chatop.exception.BadRequestException;
+import com.mick.chatop.messaging.MessageCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Classement des annonces les plus contactées sur 24 heures et sur 7 jours, tenu à jour en mémoire.
+ *
+ * Chaque message enregistré ({@link MessageCreatedEvent}, publié après le commit) incrémente le seau
+ * de sa minute ainsi que les totaux par annonce des deux fenêtres. Quand le temps avance, les seaux
+ * sortis d'une fenêtre sont soustraits de ses totaux : aucune agrégation n'est refaite sur {@code messages}.
+ * Les {@code top-k} premières annonces de chaque fenêtre sont recalculées au plus toutes les
+ * {@code refresh-interval-ms} et publiées dans un instantané immuable : une lecture ne coûte qu'un accès mémoire.
+ *
+ * Au démarrage, l'état est reconstruit par une seule lecture en flux des messages des 7 derniers jours
+ * ({@link TrendingRebuildSource}). Les messages reçus par événement pendant cette lecture sont mis de côté,
+ * puis appliqués si leur identifiant dépasse le dernier identifiant lu ({@code MAX(id)} de l'instantané).
+ * Limite connue : un message dont l'identifiant a été attribué avant l'instantané mais validé après
+ * (lot de l'écrivain en cours de commit au démarrage) n'est ni lu ni appliqué. Il manque au classement
+ * jusqu'à ce qu'il sorte des fenêtres ; la perte se limite au lot en cours au démarrage.
+ */
+@Component
+public class TrendingRentals {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingRentals.class);
+
+    /**
+     * Fenêtres du classement.
+     */
+    public enum Window {
+        DAY("24h", TimeUnit.HOURS.toMinutes(24)),
+        WEEK("7d", TimeUnit.DAYS.toMinutes(7));
+
+        private final String label;
+        private final long minutes;
+
+        Window(String label, long minutes) {
+            this.label = label;
+            this.minutes = minutes;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        /**
+         * @throws BadRequestException Si la fenêtre n'est ni {@code 24h} ni {@code 7d}.
+         */
+        public static Window parse(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new BadRequestException("Unsupported window, expected 24h or 7d");
+        }
+    }
+
+    /**
+     * Une annonce du classement et son nombre de messages dans la fenêtre.
+     */
+    public record Entry(Integer rentalId, long messages) {
+    }
+
+    private static final Comparator<Entry> RANKING =
+            Comparator.comparingLong(Entry::messages).reversed().thenComparing(Entry::rentalId);
+
+    private final TrendingRebuildSource rebuildSource;
+    private final Clock clock;
+    private final int topK;
+
+    // État protégé par le verrou (écrivains de messages, reconstruction, rafraîchissement).
+    // ReentrantLock plutôt que synchronized : un thread virtuel en attente n'épingle pas son thread porteur.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, Map<Integer, Integer>> buckets = new TreeMap<>();
+    private final Map<Window, Map<Integer, Long>> totals = new EnumMap<>(Window.class);
+    private final List<MessageCreatedEvent> deferred = new ArrayList<>();
+    private long currentMinute;
+    private boolean rebuilding = true;
+    private long rebuiltUpToId;
+    private boolean dirty;
+
+    private volatile Map<Window, List<Entry>> snapshot = Map.of(Window.DAY, List.of(), Window.WEEK, List.of());
+
+    @Autowired
+    public TrendingRentals(TrendingRebuildSource rebuildSource,
+                           @Value("${chatop.trending.top-k:50}") int topK) {
+        this(rebuildSource, topK, Clock.systemDefaultZone());
+    }
+
+    TrendingRentals(TrendingRebuildSource rebuildSource, int topK, Clock clock) {
+        this.rebuildSource = rebuildSource;
+        this.clock = clock;
+        this.topK = topK;
+        this.currentMinute = nowMinute();
+        for (Window window : Window.values()) {
+            totals.put(window, new HashMap<>());
+        }
+    }
+
+    /**
+     * @return Les {@code limit} annonces les plus contactées de la fenêtre (au plus {@code top-k}).
+     */
+    public List<Entry> top(Window window, int limit) {
+        List<Entry> ranking = snapshot.get(window);
+        return ranking.subList(0, Math.clamp(limit, 0, ranking.size()));
+    }
+
+    @EventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        lock.lock();
+        try {
+            if (rebuilding) {
+                deferred.add(event);
+            } else if (event.id() > rebuiltUpToId) {
+                add(event.rentalId(), minuteOf(event.createdAt()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Avance les fenêtres et publie un nouveau classement s'il a changé.
+     */
+    @Scheduled(fixedDelayString = "${chatop.trending.refresh-interval-ms:1000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            advance(nowMinute());
+            if (!dirty) {
+                return;
+            }
+            Map<Window, List<Entry>> ranking = new EnumMap<>(Window.class);
+            totals.forEach((window, counts) -> ranking.put(window, rank(counts)));
+            snapshot = ranking;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lance la reconstruction en arrière-plan, une fois l'application prête à servir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofVirtual().name("trending-rebuild").start(this::rebuild);
+    }
+
+    /**
+     * Relit en flux les messages des 7 derniers jours : les messages au-delà du dernier identifiant lu
+     * arriveront (ou sont arrivés) par événement.
+     */
+    void rebuild() {
+        long startedAt = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now(clock).minusMinutes(Window.WEEK.minutes);
+        long[] rows = {0};
+        long upToId = 0;
+        try {
+            upToId = rebuildSource.scan(since, (rentalId, createdAt) -> {
+                long minute = minuteOf(createdAt);
+                lock.lock();
+                try {
+                    add(rentalId, minute);
+                } finally {
+                    lock.unlock();
+                }
+                rows[0]++;
+            });
+            logger.info("Classement des annonces reconstruit à partir de {} message(s) en {} ms", rows[0],
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (RuntimeException e) {
+            logger.warn("Échec de la reconstruction du classement des annonces, "
+                    + "seuls les nouveaux messages seront comptés : {}", e.getMessage());
+        }
+        finishRebuild(upToId);
+    }
+
+    void finishRebuild(long upToId) {
+        lock.lock();
+        try {
+            rebuilding = false;
+            rebuiltUpToId = upToId;
+            for (MessageCreatedEvent event : deferred) {
+                if (event.id() > upToId) {
+                    add(event.rentalId(), minuteOf(event.createdAt()));
+                }
+            }
+            deferred.clear();
+            refresh();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compte un message dans le seau de sa minute et dans les totaux des fenêtres qui la contiennent.
+     */
+    private void add(int rentalId, long minute) {
+        if (minute > currentMinute) {
+            advance(minute);
+        }
+        for (Window window : Window.values()) {
+            if (minute > currentMinute - window.minutes) {
+                totals.get(window).merge(rentalId, 1L, Long::sum);
+            }
+        }
+        if (minute > currentMinute - Window.WEEK.minutes) {
+            buckets.computeIfAbsent(minute, m -> new HashMap<>()).merge(rentalId, 1, Integer::sum);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Retire des totaux de chaque fenêtre les seaux qui en sortent, puis oublie ceux sortis de la plus longue.
+     */
+    private void advance(long minute) {
+        if (minute <= currentMinute) {
+            return;
+        }
+        for (Window window : Window.values()) {
+            Map<Integer, Long> counts = totals.get(window);
+            buckets.subMap(currentMinute - window.minutes, false, minute - window.minutes, true)
+                    .values()
+                    .forEach(bucket -> {
+                        bucket.forEach((rentalId, messages) ->
+                                counts.computeIfPresent(rentalId, (id, total) -> total - messages == 0 ? null : total - messages));
+                        dirty = true;
+                    });
+        }
+        buckets.headMap(minute - Window.WEEK.minutes, true).clear();
+        currentMinute = minute;
+    }
+
+    private List<Entry> rank(Map<Integer, Long> counts) {
+        PriorityQueue<Entry> best = new PriorityQueue<>(topK + 1, RANKING.reversed());
+        counts.forEach((rentalId, messages) -> {
+            best.add(new Entry(rentalId, messages));
+            if (best.size() > topK) {
+                best.poll();
+            }
+        });
+        List<Entry> ranking = new ArrayList<>(best);
+        ranking.sort(RANKING);
+        return List.copyOf(ranking);
+    }
+
+    private long nowMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(clock.millis());
+    }
+
+    private long minuteOf(LocalDateTime createdAt) {
+        return TimeUnit.SECONDS.toMinutes(createdAt.atZone(clock.getZone()).toEpochSecond());
+    }
+}
@@ -0,0 +1,206 @@
+package com.mick.chatop.storage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stockage des images des annonces en deux phases.
+ *
+ * 1. {@link #stage} écrit l'image envoyée dans un répertoire de transit, hors de toute transaction :
+ *    une écriture disque lente n'occupe ni connexion ni verrou en base.
+ * 2. {@link #publishOnCommit}, appelé dans la transaction qui référence l'image, publie le fichier
+ *    (déplacement atomique) et supprime l'image remplacée après le commit ; si la transaction
+ *    est annulée, le fichier en transit est supprimé.
+ *
+ * Les fichiers en transit orphelins (arrêt brutal entre les deux phases) sont purgés périodiquement.
+ *
+ * La taille ({@code chatop.images.uploaded}) et la durée d'écriture ({@code chatop.images.stage})
+ * des images reçues sont mesurées : leur rapport donne le débit d'envoi.
+ */
+@Component
+public class ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorage.class);
+
+    private static final String STAGING_DIRECTORY = ".staging";
+
+    private final Path uploadPath;
+    private final Path stagingPath;
+    private final Duration stagingRetention;
+    private final DistributionSummary uploadedBytes;
+    private final Timer stageTimer;
+
+    public ImageStorage(@Value("${file.storage.location}") String uploadDir,
+                        @Value("${chatop.storage.staging-retention:1h}") Duration stagingRetention,
+                        MeterRegistry meterRegistry) {
+        this.uploadPath = Paths.get(uploadDir);
+        this.stagingPath = uploadPath.resolve(STAGING_DIRECTORY);
+        this.stagingRetention = stagingRetention;
+        this.uploadedBytes = DistributionSummary.builder("chatop.images.uploaded")
+                .description("Size of uploaded rental pictures")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.stageTimer = Timer.builder("chatop.images.stage")
+                .description("Time spent writing uploaded pictures to the staging directory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valide le type et l'extension de l'image puis l'écrit dans le répertoire de transit.
+     *
+     * @param file Fichier Multipart envoyé.
+     * @return L'image en transit.
+     * @throws IllegalArgumentException Si le fichier n'est pas une image autorisée.
+     * @throws UncheckedIOException     En cas d'erreur d'écriture.
+     */
+    public StagedImage stage(MultipartFile file) {
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("Only image files are allowed.");
+        }
+
+        String originalName = file.getOriginalFilename();
+        if (originalName == null || !originalName.matches("(?i).+\\.(jpg|jpeg|png|gif)$")) {
+            throw new IllegalArgumentException("File extension not allowed. Allowed: jpg, jpeg, png, gif.");
+        }
+
+        String fileName = UUID.randomUUID() + "_" + Paths.get(originalName).getFileName();
+        Path staged = stagingPath.resolve(fileName);
+        Timer.Sample sample = Timer.start();
+        try (InputStream in = file.getInputStream()) {
+            Files.createDirectories(stagingPath);
+            uploadedBytes.record(Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING));
+        } catch (IOException e) {
+            discard(new StagedImage(staged, fileName));
+            throw new UncheckedIOException("There was a problem with the photo", e);
+        }
+        sample.stop(stageTimer);
+        return new StagedImage(staged, fileName);
+    }
+
+    /**
+     * Programme la publication de l'image à la fin de la transaction courante.
+     *
+     * @param image            Image en transit.
+     * @param replacedImageUrl URL de l'image remplacée, supprimée après le commit (peut être {@code null}).
+     * @throws IllegalStateException Si aucune transaction n'est active.
+     */
+    public void publishOnCommit(StagedImage image, String replacedImageUrl) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(image);
+                delete(replacedImageUrl);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    discard(image);
+                }
+            }
+        });
+    }
+
+    /**
+     * Supprime une image en transit (compensation d'un échec) ; sans effet si elle n'existe plus.
+     */
+    public void discard(StagedImage image) {
+        try {
+            Files.deleteIfExists(image.path());
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer l'image en transit {} : {}", image.path(), e.getMessage());
+        }
+    }
+
+    /**
+     * Supprime une image publiée à partir de son URL publique.
+     *
+     * @param imageUrl URL publique de l'image (peut être {@code null}).
+     */
+    public void delete(String imageUrl) {
+        if (imageUrl == null) return;
+
+        String filename = Paths.get(URI.create(imageUrl).getPath()).getFileName().toString();
+        try {
+            Files.deleteIfExists(uploadPath.resolve(filename));
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer l'ancienne image {} : {}", filename, e.getMessage());
+        }
+    }
+
+    /**
+     * Indique si une image publiée existe, à partir de son nom de fichier (sans chemin).
+     *
+     * @param filename Nom du fichier dans le stockage.
+     * @return {@code true} si le fichier existe.
+     */
+    public boolean exists(String filename) {
+        if (!filename.matches("[\\w.-]+") || filename.startsWith(".")) {
+            return false;
+        }
+        return Files.isRegularFile(uploadPath.resolve(filename));
+    }
+
+    /**
+     * Purge les images en transit plus anciennes que la durée de rétention.
+     */
+    @Scheduled(fixedDelayString = "${chatop.storage.staging-sweep-interval-ms:600000}")
+    public void purgeOrphans() {
+        if (!Files.isDirectory(stagingPath)) {
+            return;
+        }
+        FileTime limit = FileTime.from(Instant.now().minus(stagingRetention));
+        try (DirectoryStream<Path> staged = Files.newDirectoryStream(stagingPath)) {
+            for (Path file : staged) {
+                if (Files.getLastModifiedTime(file).compareTo(limit) < 0) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Purge des images en transit impossible : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Déplace l'image vers son emplacement définitif. Le répertoire de transit est un sous-répertoire
+     * du stockage : le déplacement est un simple renommage, atomique sur le même système de fichiers.
+     */
+    private void publish(StagedImage image) {
+        Path target = uploadPath.resolve(image.filename());
+        try {
+            try {
+                Files.move(image.path(), target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(image.path(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // La ligne est déjà validée : l'image reste en transit (reprise manuelle possible jusqu'à la purge)
+            logger.error("Publication de l'image {} impossible après le commit : {}", image.filename(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.mick.chatop.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Image envoyée, écrite dans le répertoire de transit et pas encore publiée.
+ *
+ * @param path     Emplacement du fichier en transit
+ * @param filename Nom définitif du fichier une fois publié
+ */
+public record StagedImage(Path path, String filename) {
+}
@@ -0,0 +1,104 @@
+package com.mick.chatop.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mick.chatop.dto.MessageDto;
+import com.mick.chatop.messaging.MessageCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Diffusion en temps réel des nouveaux messages aux propriétaires d'annonces (Server-Sent Events).
+ *
+ * Les connexions sont indexées par propriétaire ({@link SseSubscriberRegistry}). À la réception d'un {@link MessageCreatedEvent},
+ * publié par l'écrivain de messages après le commit, le message est sérialisé une seule fois
+ * puis déposé dans le tampon borné de chaque connexion du destinataire ; les envois sont
+ * effectués sur des threads virtuels. Un battement de cœur périodique maintient les connexions
+ * ouvertes à travers les proxys et détecte les clients partis.
+ */
+@Component
+public class MessageStreamBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStreamBroadcaster.class);
+
+    private static final String MESSAGE_EVENT = "message";
+
+    private final ObjectMapper objectMapper;
+    private final SseSubscriberRegistry subscribers;
+
+    public MessageStreamBroadcaster(ObjectMapper objectMapper,
+                                    @Value("${chatop.sse.timeout:30m}") Duration timeout,
+                                    @Value("${chatop.sse.buffer-capacity:64}") int bufferCapacity,
+                                    @Value("${chatop.sse.max-connections-per-user:5}") int maxConnectionsPerUser) {
+        this.objectMapper = objectMapper;
+        this.subscribers = new SseSubscriberRegistry(timeout, bufferCapacity, maxConnectionsPerUser);
+    }
+
+    /**
+     * Ouvre un flux pour un utilisateur. La connexion est retirée automatiquement
+     * à sa fin (déconnexion, expiration ou erreur).
+     *
+     * @param userId Identifiant de l'utilisateur connecté.
+     * @return L'émetteur SSE à retourner par le contrôleur.
+     * @throws com.mick.chatop.exception.TooManyRequestsException si l'utilisateur a déjà trop de connexions ouvertes.
+     */
+    public SseEmitter subscribe(Integer userId) {
+        return subscribers.subscribe(userId);
+    }
+
+    /**
+     * Transmet un message validé à son destinataire s'il est connecté.
+     * Appelé sur le thread de l'écrivain : rien ici ne doit bloquer.
+     */
+    @EventListener
+    public void onMessageCreated(MessageCreatedEvent event) {
+        if (!subscribers.isConnected(event.ownerId())) {
+            return;
+        }
+
+        MessageDto message = new MessageDto(event.id(), event.rentalId(), event.userId(), event.message(), event.createdAt());
+        Set<ResponseBodyEmitter.DataWithMediaType> sseEvent;
+        try {
+            sseEvent = SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name(MESSAGE_EVENT)
+                    .data(objectMapper.writeValueAsString(message), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.warn("Impossible de sérialiser le message {} : {}", event.id(), e.getMessage());
+            return;
+        }
+        subscribers.send(event.ownerId(), sseEvent);
+    }
+
+    /**
+     * Envoie un commentaire SSE à toutes les connexions ouvertes.
+     */
+    @Scheduled(fixedDelayString = "${chatop.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.heartbeat();
+    }
+
+    /**
+     * Nombre de connexions ouvertes, toutes connexions confondues.
+     */
+    public int connectionCount() {
+        return subscribers.connectionCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.close();
+    }
+}
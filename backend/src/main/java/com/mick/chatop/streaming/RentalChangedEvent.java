@@ -0,0 +1,70 @@
+package com.mick.chatop.streaming;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mick.chatop.dto.RentalDto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Changement d'une annonce, publié dans la transaction qui l'écrit et diffusé après son commit
+ * par le {@link RentalStreamBroadcaster}.
+ *
+ * Seuls les champs modifiés sont transmis, sous leur nom JSON dans {@link RentalDto} :
+ * tous les champs pour une création, ceux dont la valeur a changé (plus {@code updatedAt}
+ * et {@code version}) pour une mise à jour.
+ *
+ * @param rentalId Identifiant de l'annonce (exposé sous forme de {@code id} en JSON)
+ * @param kind     Nature du changement
+ * @param fields   Champs modifiés et leur nouvelle valeur
+ */
+public record RentalChangedEvent(
+        @JsonProperty("id")
+        Integer rentalId,
+        Kind kind,
+        Map<String, Object> fields
+) {
+
+    public enum Kind {
+        @JsonProperty("created")
+        CREATED,
+        @JsonProperty("updated")
+        UPDATED
+    }
+
+    public RentalChangedEvent {
+        fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    }
+
+    /**
+     * @param rental Annonce créée, après son insertion.
+     */
+    public static RentalChangedEvent created(RentalDto rental) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", rental.name());
+        fields.put("surface", rental.surface());
+        fields.put("price", rental.price());
+        fields.put("description", rental.description());
+        fields.put("picture", rental.picture());
+        fields.put("owner_id", rental.ownerId());
+        fields.put("createdAt", rental.createdAt());
+        fields.put("updatedAt", rental.updatedAt());
+        fields.put("version", rental.version());
+        return new RentalChangedEvent(rental.id(), Kind.CREATED, fields);
+    }
+
+    public static RentalChangedEvent updated(Integer rentalId, Map<String, Object> fields) {
+        return new RentalChangedEvent(rentalId, Kind.UPDATED, fields);
+    }
+
+    /**
+     * Fusionne un changement plus récent de la même annonce : ses valeurs l'emportent,
+     * et une annonce créée puis modifiée reste une création.
+     */
+    public RentalChangedEvent merge(RentalChangedEvent next) {
+        Map<String, Object> merged = new LinkedHashMap<>(fields);
+        merged.putAll(next.fields);
+        return new RentalChangedEvent(rentalId, kind == Kind.CREATED ? Kind.CREATED : next.kind, merged);
+    }
+}
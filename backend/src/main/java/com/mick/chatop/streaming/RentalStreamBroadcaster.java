@@ -0,0 +1,208 @@
+package com.mick.chatop.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Diffusion en temps réel des créations et modifications d'annonces (Server-Sent Events).
+ *
+ * Les {@link RentalChangedEvent} sont reçus après le commit de leur transaction et regroupés par annonce
+ * pendant {@code coalesce-interval-ms} : plusieurs modifications rapprochées d'une même annonce ne donnent
+ * qu'un événement. À chaque relève, un événement est sérialisé une seule fois, numéroté, conservé dans
+ * un historique circulaire de {@code replay-capacity} événements puis déposé dans le tampon borné de
+ * chaque connexion ({@link SseSubscriberRegistry}).
+ *
+ * Un client qui se reconnecte avec l'en-tête {@code Last-Event-ID} reçoit les événements manqués encore
+ * présents dans l'historique ; s'ils n'y sont plus (ou si le serveur a redémarré), il reçoit un événement
+ * {@code reset} et doit relire la liste des annonces.
+ */
+@Component
+public class RentalStreamBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalStreamBroadcaster.class);
+
+    static final String RENTAL_EVENT = "rental";
+    static final String RESET_EVENT = "reset";
+
+    /**
+     * Événement numéroté et déjà sérialisé, conservé pour la reprise.
+     */
+    record Published(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SseSubscriberRegistry subscribers;
+    private final int bufferCapacity;
+    private final int replayCapacity;
+
+    // Préfixe des identifiants d'événements : un identifiant émis avant un redémarrage n'est pas repris
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    // État protégé par le verrou des relèves ; ReentrantLock plutôt que synchronized pour ne pas épingler
+    // le thread porteur d'un thread virtuel en attente
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, RentalChangedEvent> pending = new LinkedHashMap<>();
+    private final ArrayDeque<Published> history = new ArrayDeque<>();
+    private long sequence;
+
+    public RentalStreamBroadcaster(ObjectMapper objectMapper,
+                                   @Value("${chatop.sse.timeout:30m}") Duration timeout,
+                                   @Value("${chatop.sse.buffer-capacity:64}") int bufferCapacity,
+                                   @Value("${chatop.sse.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${chatop.rentals.stream.replay-capacity:256}") int replayCapacity) {
+        this.objectMapper = objectMapper;
+        this.subscribers = new SseSubscriberRegistry(timeout, bufferCapacity, maxConnectionsPerUser);
+        this.bufferCapacity = bufferCapacity;
+        this.replayCapacity = replayCapacity;
+    }
+
+    /**
+     * Ouvre un flux pour un utilisateur, en rejouant d'abord les événements manqués depuis {@code lastEventId}.
+     * L'inscription et la reprise sont faites sous le verrou des relèves : aucun événement n'est perdu ni dupliqué.
+     *
+     * @param userId      Identifiant de l'utilisateur connecté.
+     * @param lastEventId Valeur de l'en-tête {@code Last-Event-ID}, ou {@code null} pour une première connexion.
+     * @return L'émetteur SSE à retourner par le contrôleur.
+     * @throws com.mick.chatop.exception.TooManyRequestsException si l'utilisateur a déjà trop de connexions ouvertes.
+     */
+    public SseEmitter subscribe(Integer userId, String lastEventId) {
+        lock.lock();
+        try {
+            return subscribers.subscribe(userId, subscriber -> {
+                List<Published> missed = missedSince(lastEventId);
+                if (missed == null) {
+                    subscriber.offer(SseEmitter.event().id(eventId(sequence)).name(RESET_EVENT).data("{}").build());
+                } else {
+                    missed.forEach(published -> subscriber.offer(published.event()));
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Met le changement en attente de la prochaine relève, fusionné avec ceux déjà en attente pour l'annonce.
+     * Appelé après le commit, sur le thread de la requête : rien ici ne doit bloquer.
+     */
+    @TransactionalEventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        lock.lock();
+        try {
+            pending.merge(event.rentalId(), event, RentalChangedEvent::merge);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publie les changements regroupés depuis la relève précédente.
+     */
+    @Scheduled(fixedDelayString = "${chatop.rentals.stream.coalesce-interval-ms:500}")
+    public void flush() {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            for (RentalChangedEvent change : pending.values()) {
+                Published published;
+                try {
+                    published = new Published(sequence + 1, SseEmitter.event()
+                            .id(eventId(sequence + 1))
+                            .name(RENTAL_EVENT)
+                            .data(objectMapper.writeValueAsString(change), MediaType.APPLICATION_JSON)
+                            .build());
+                } catch (JsonProcessingException e) {
+                    logger.warn("Impossible de sérialiser le changement de l'annonce {} : {}", change.rentalId(), e.getMessage());
+                    continue;
+                }
+                sequence++;
+                if (history.size() == replayCapacity) {
+                    history.removeFirst();
+                }
+                history.addLast(published);
+                subscribers.sendToAll(published.event());
+            }
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Envoie un commentaire SSE à toutes les connexions ouvertes.
+     */
+    @Scheduled(fixedDelayString = "${chatop.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.heartbeat();
+    }
+
+    /**
+     * Nombre de connexions ouvertes, toutes connexions confondues.
+     */
+    public int connectionCount() {
+        return subscribers.connectionCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.close();
+    }
+
+    /**
+     * Événements publiés après {@code lastEventId}, ou {@code null} si la reprise est impossible :
+     * identifiant d'une autre instance ou illisible, événements sortis de l'historique, ou trop nombreux
+     * pour le tampon d'une connexion.
+     */
+    List<Published> missedSince(String lastEventId) {
+        lock.lock();
+        try {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return List.of();
+            }
+            long last;
+            int separator = lastEventId.lastIndexOf('-');
+            try {
+                if (separator < 0 || !instance.equals(lastEventId.substring(0, separator))) {
+                    return null;
+                }
+                last = Long.parseLong(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (last > sequence) {
+                return null;
+            }
+            long oldest = history.isEmpty() ? sequence + 1 : history.getFirst().sequence();
+            if (last < oldest - 1 || sequence - last > bufferCapacity) {
+                return null;
+            }
+            return history.stream().filter(published -> published.sequence() > last).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String eventId(long sequence) {
+        return instance + "-" + sequence;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mick.chatop.streaming;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Abonné à un flux Server-Sent Events.
+ *
+ * Chaque abonné dispose d'un tampon borné : la publication d'un événement se résume à un dépôt
+ * non bloquant dans ce tampon, l'envoi réseau étant effectué par une tâche de vidage sur
+ * l'{@link Executor} fourni. Un client trop lent dont le tampon déborde est déconnecté
+ * (il pourra se reconnecter) plutôt que de ralentir les autres abonnés ou l'émetteur.
+ *
+ * Entre deux envois, un abonné n'occupe aucun thread : la connexion reste ouverte
+ * grâce au support asynchrone des servlets.
+ */
+public final class SseSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseSubscriber.class);
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param emitter        Émetteur SSE de la connexion.
+     * @param bufferCapacity Nombre maximal d'événements en attente d'envoi.
+     * @param executor       Exécuteur des tâches d'envoi.
+     */
+    public SseSubscriber(SseEmitter emitter, int bufferCapacity, Executor executor) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.executor = executor;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Dépose un événement déjà construit (et partagé entre abonnés) dans le tampon.
+     * N'effectue jamais d'entrée/sortie sur le thread appelant.
+     *
+     * @param event Événement construit avec {@link SseEmitter#event()}.
+     */
+    public void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            logger.debug("Abonné SSE trop lent, déconnexion");
+            close();
+            return;
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Termine la connexion ; sans effet si elle l'est déjà.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void drain() {
+        try {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+                draining.set(false);
+            } while (!buffer.isEmpty() && !closed.get() && draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Connexion SSE interrompue : {}", e.getMessage());
+            close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.mick.chatop.streaming;
+
+import com.mick.chatop.exception.TooManyRequestsException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Connexions Server-Sent Events ouvertes, indexées par utilisateur, partagées par les diffuseurs
+ * ({@link MessageStreamBroadcaster}, {@link RentalStreamBroadcaster}).
+ *
+ * L'ensemble des connexions d'un utilisateur n'est modifié que dans {@link ConcurrentHashMap#compute} :
+ * le contrôle du plafond de connexions et l'ajout sont atomiques, et une inscription ne peut pas viser
+ * un ensemble qu'une désinscription concurrente vient de vider et de retirer de l'index.
+ */
+public final class SseSubscriberRegistry {
+
+    private final ConcurrentHashMap<Integer, Set<SseSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration timeout;
+    private final int bufferCapacity;
+    private final int maxConnectionsPerUser;
+
+    /**
+     * @param timeout               Durée de vie maximale d'une connexion.
+     * @param bufferCapacity        Nombre maximal d'événements en attente d'envoi par connexion.
+     * @param maxConnectionsPerUser Nombre maximal de connexions ouvertes par utilisateur.
+     */
+    public SseSubscriberRegistry(Duration timeout, int bufferCapacity, int maxConnectionsPerUser) {
+        this.timeout = timeout;
+        this.bufferCapacity = bufferCapacity;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    /**
+     * Ouvre une connexion pour un utilisateur, sans événement initial.
+     *
+     * @see #subscribe(Integer, Consumer)
+     */
+    public SseEmitter subscribe(Integer userId) {
+        return subscribe(userId, subscriber -> {
+        });
+    }
+
+    /**
+     * Ouvre une connexion pour un utilisateur. Elle est retirée automatiquement à sa fin
+     * (déconnexion, expiration ou erreur).
+     *
+     * @param userId     Identifiant de l'utilisateur connecté.
+     * @param initialize Dépose les premiers événements de la connexion, avant qu'elle ne reçoive les diffusions.
+     * @return L'émetteur SSE à retourner par le contrôleur.
+     * @throws TooManyRequestsException si l'utilisateur a déjà trop de connexions ouvertes.
+     */
+    public SseEmitter subscribe(Integer userId, Consumer<SseSubscriber> initialize) {
+        SseSubscriber subscriber = new SseSubscriber(new SseEmitter(timeout.toMillis()), bufferCapacity, senders);
+
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<SseSubscriber> current = userSubscribers != null ? userSubscribers : ConcurrentHashMap.newKeySet();
+            if (current.size() >= maxConnectionsPerUser) {
+                throw new TooManyRequestsException("Too many open streams for this user");
+            }
+            initialize.accept(subscriber);
+            current.add(subscriber);
+            return current;
+        });
+
+        SseEmitter emitter = subscriber.getEmitter();
+        Runnable unsubscribe = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            unsubscribe.run();
+        });
+        emitter.onError(error -> {
+            subscriber.close();
+            unsubscribe.run();
+        });
+        return emitter;
+    }
+
+    /**
+     * Dépose un événement dans le tampon de chaque connexion d'un utilisateur, s'il est connecté.
+     */
+    public void send(Integer userId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        Set<SseSubscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Dépose un événement dans le tampon de toutes les connexions ouvertes.
+     */
+    public void sendToAll(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.offer(event)));
+    }
+
+    public boolean isConnected(Integer userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Envoie un commentaire SSE à toutes les connexions ouvertes.
+     */
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            sendToAll(SseEmitter.event().comment("ping").build());
+        }
+    }
+
+    /**
+     * Nombre de connexions ouvertes, toutes connexions confondues.
+     */
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Termine toutes les connexions et arrête les envois.
+     */
+    public void close() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(SseSubscriber::close));
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    void unsubscribe(Integer userId, SseSubscriber subscriber) {
+        subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+}
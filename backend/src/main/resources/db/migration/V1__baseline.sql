@@ -0,0 +1,54 @@
+-- Schéma initial, tel que créé jusqu'ici par Hibernate (ddl-auto=update).
+-- Les bases existantes sont marquées à cette version sans exécuter ce script (baseline-on-migrate).
+
+CREATE TABLE users (
+    id INT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_users_email ON users (email);
+
+CREATE TABLE rentals (
+    id INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    surface DOUBLE NOT NULL,
+    price DOUBLE NOT NULL,
+    description VARCHAR(2000) NOT NULL,
+    picture VARCHAR(255) NOT NULL,
+    owner_id INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE rentals ADD CONSTRAINT fk_rentals_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE TABLE messages (
+    id INT NOT NULL AUTO_INCREMENT,
+    rental_id INT NOT NULL,
+    user_id INT NOT NULL,
+    message VARCHAR(2000) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE messages ADD CONSTRAINT fk_messages_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
+ALTER TABLE messages ADD CONSTRAINT fk_messages_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+CREATE TABLE tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token VARCHAR(512) NOT NULL,
+    user_id INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    valid BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_tokens_token ON tokens (token);
+ALTER TABLE tokens ADD CONSTRAINT fk_tokens_user FOREIGN KEY (user_id) REFERENCES users (id);
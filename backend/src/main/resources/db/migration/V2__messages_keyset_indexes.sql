@@ -0,0 +1,5 @@
+-- Messages d'une annonce et d'un utilisateur, paginés par clé sur (created_at, id).
+-- Chaque index sert aussi la clé étrangère de sa première colonne.
+CREATE INDEX idx_messages_rental_created ON messages (rental_id, created_at, id) ${onlineddl};
+
+CREATE INDEX idx_messages_user_created ON messages (user_id, created_at, id) ${onlineddl};
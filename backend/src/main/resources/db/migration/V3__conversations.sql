@@ -0,0 +1,19 @@
+-- Boîte de réception : une conversation par couple (annonce, locataire), tenue à jour par MessageBatchWriter.
+CREATE TABLE conversations (
+    id INT NOT NULL AUTO_INCREMENT,
+    rental_id INT NOT NULL,
+    user_id INT NOT NULL,
+    owner_id INT NOT NULL,
+    last_message VARCHAR(255) NOT NULL,
+    last_message_at DATETIME(6) NOT NULL,
+    unread_count INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_conversations_rental_user ON conversations (rental_id, user_id);
+CREATE INDEX idx_conversations_owner_last ON conversations (owner_id, last_message_at, id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_owner FOREIGN KEY (owner_id) REFERENCES users (id);
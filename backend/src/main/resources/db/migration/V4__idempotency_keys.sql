@@ -0,0 +1,12 @@
+-- Clés d'idempotence des créations (JdbcIdempotencyStore) ; status est nul tant que la requête est en cours.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64) NOT NULL,
+    status INT,
+    content_type VARCHAR(255),
+    body MEDIUMBLOB,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
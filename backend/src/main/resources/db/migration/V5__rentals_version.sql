@@ -0,0 +1,3 @@
+-- Version des annonces pour le verrouillage optimiste ; les lignes existantes partent de 0.
+-- Colonne ajoutée sans copie de la table (ALGORITHM=INSTANT par défaut sur MySQL 8).
+ALTER TABLE rentals ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
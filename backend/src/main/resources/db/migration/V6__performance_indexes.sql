@@ -0,0 +1,11 @@
+-- Index des requêtes fréquentes, créés sans bloquer les écritures sur MySQL
+-- (${onlineddl} vaut "ALGORITHM=INPLACE LOCK=NONE" ; il est vide sur H2).
+
+-- Tokens valides d'un utilisateur (déconnexion) ; sert aussi d'index à la clé étrangère user_id
+CREATE INDEX idx_tokens_user_valid ON tokens (user_id, valid) ${onlineddl};
+
+-- Annonces d'un propriétaire
+CREATE INDEX idx_rentals_owner ON rentals (owner_id) ${onlineddl};
+
+-- Annonces récemment modifiées
+CREATE INDEX idx_rentals_updated ON rentals (updated_at) ${onlineddl};
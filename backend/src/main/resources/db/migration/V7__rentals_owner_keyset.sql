@@ -0,0 +1,5 @@
+-- Annonces d'un propriétaire, paginées par clé sur (created_at, id) : GET /api/rentals/mine.
+-- L'index composite remplace idx_rentals_owner, dont il couvre aussi les usages (clé étrangère owner_id).
+CREATE INDEX idx_rentals_owner_created ON rentals (owner_id, created_at, id) ${onlineddl};
+
+DROP INDEX idx_rentals_owner ON rentals ${onlineddl};
@@ -0,0 +1,10 @@
+-- Compteurs de vues des annonces, alimentés par lots depuis la mémoire (RentalViewCounter).
+-- Table séparée : les incréments ne verrouillent pas les lignes de rentals ni n'incrémentent leur version.
+CREATE TABLE rental_stats (
+    rental_id INT NOT NULL,
+    views BIGINT DEFAULT 0 NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (rental_id)
+);
+
+ALTER TABLE rental_stats ADD CONSTRAINT fk_rental_stats_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
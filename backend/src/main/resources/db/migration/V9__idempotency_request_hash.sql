@@ -0,0 +1,3 @@
+-- Empreinte (SHA-256) du corps de la requête d'origine : une clé réutilisée avec un autre corps est refusée (422).
+-- Colonne nullable ajoutée sans copie de la table (ALGORITHM=INSTANT par défaut sur MySQL 8).
+ALTER TABLE idempotency_keys ADD COLUMN request_hash CHAR(64);
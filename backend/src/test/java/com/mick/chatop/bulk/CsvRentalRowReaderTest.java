@@ -0,0 +1,55 @@
+package com.mick.chatop.bulk;
+
+import com.mick.chatop.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRentalRowReaderTest {
+
+    private static CsvRentalRowReader reader(String csv) throws Exception {
+        return new CsvRentalRowReader(new BufferedReader(new StringReader(csv)));
+    }
+
+    @Test
+    void readsQuotedAndMultilineFieldsInHeaderOrder() throws Exception {
+        CsvRentalRowReader rows = reader("""
+                picture,name,surface,price,description\r
+                a.jpg,"Loft, centre",45.5,900,"Grand ""loft""
+                lumineux"
+                b.png,Studio,20,450,Calme
+                """);
+
+        RentalImportRow first = rows.next();
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.name()).isEqualTo("Loft, centre");
+        assertThat(first.description()).isEqualTo("Grand \"loft\"\nlumineux");
+        assertThat(first.picture()).isEqualTo("a.jpg");
+
+        RentalImportRow second = rows.next();
+        assertThat(second.line()).isEqualTo(4);
+        assertThat(second.name()).isEqualTo("Studio");
+        assertThat(second.price()).isEqualTo("450");
+
+        assertThat(rows.next()).isNull();
+    }
+
+    @Test
+    void reportsShortRowsWithoutStopping() throws Exception {
+        CsvRentalRowReader rows = reader("name,surface,price,description,picture\nStudio,20\nLoft,45,900,Calme,a.jpg\n");
+
+        assertThat(rows.next().error()).isNotNull();
+        assertThat(rows.next().name()).isEqualTo("Loft");
+    }
+
+    @Test
+    void rejectsHeaderWithoutRequiredColumn() {
+        assertThatThrownBy(() -> reader("name,surface,price,description\n"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("picture");
+    }
+}
@@ -0,0 +1,34 @@
+package com.mick.chatop.config;
+
+import com.mick.chatop.dto.ErrorResponse;
+import com.mick.chatop.dto.MessageDto;
+import com.mick.chatop.dto.RentalDto;
+import com.mick.chatop.entity.ConversationEntity;
+import com.mick.chatop.entity.RentalEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatopRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    ChatopRuntimeHintsTest() {
+        new ChatopRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersDtoRecordsAndEntities() {
+        for (Class<?> type : new Class<?>[]{RentalDto.class, MessageDto.class, ErrorResponse.class,
+                RentalEntity.class, ConversationEntity.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(type.getSimpleName()).accepts(hints);
+        }
+    }
+
+    @Test
+    void registersMigrations() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__baseline.sql")).accepts(hints);
+    }
+}
@@ -0,0 +1,38 @@
+package com.mick.chatop.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZipfSamplerTest {
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.1);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sampler.sample(first)).isEqualTo(sampler.sample(second));
+        }
+    }
+
+    @Test
+    void lowRanksDominate() {
+        ZipfSampler sampler = new ZipfSampler(10_000, 1.1);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[10_000];
+        for (int i = 0; i < 100_000; i++) {
+            int rank = sampler.sample(random);
+            assertThat(rank).isBetween(0, 9_999);
+            counts[rank]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        // Avec un exposant de 1.1 sur 10 000 rangs, le premier rang reçoit environ 15 % des tirages
+        assertThat(counts[0]).isBetween(14_000, 16_300);
+    }
+}
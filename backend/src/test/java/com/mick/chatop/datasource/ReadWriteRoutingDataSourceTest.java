@@ -0,0 +1,98 @@
+package com.mick.chatop.datasource;
+
+import com.mick.chatop.repository.TokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routage lecture/écriture sur deux bases H2 en mémoire : chacune contient une ligne
+ * indiquant son rôle, ce qui permet de savoir quelle base a servi la requête.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String WHO = "SELECT role FROM node";
+
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, List.of(replica)));
+
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        String role = readOnly.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+
+        assertThat(role).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndPlainStatementsUsePrimary() {
+        String role = readWrite.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+
+        assertThat(role).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject(WHO, String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void forcedPrimaryOverridesReadOnly() {
+        RoutingContext.forcePrimary();
+
+        String role = readOnly.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+
+        assertThat(role).isEqualTo("primary");
+    }
+
+    @Test
+    void tokenLookupUsesPrimary() throws NoSuchMethodException {
+        // Le token est vérifié avant le filtre de lecture de ses propres écritures : seule sa transaction le protège
+        Method findByToken = TokenRepository.class.getMethod("findByToken", String.class);
+        TransactionAttribute attribute = new AnnotationTransactionAttributeSource()
+                .getTransactionAttribute(findByToken, TokenRepository.class);
+        TransactionTemplate tokenLookup = new TransactionTemplate(transactionManager, attribute);
+
+        String role = tokenLookup.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+
+        assertThat(attribute).isNotNull();
+        assertThat(role).isEqualTo("primary");
+    }
+
+    private static DataSource database(String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + role + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (role VARCHAR(16))");
+        jdbc.update("INSERT INTO node (role) VALUES (?)", role);
+        return dataSource;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mick.chatop.idempotency;
+
+import com.mick.chatop.exception.ConflictException;
+import com.mick.chatop.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final StoredResponse CREATED =
+            new StoredResponse(200, "application/json", "{\"message\":\"ok\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), 100);
+
+    @Test
+    void replaysCompletedResponse() {
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+        store.complete("key", CREATED);
+
+        assertThat(store.begin("key", "hash", Duration.ZERO)).contains(CREATED);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstRequest() throws Exception {
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+
+        CompletableFuture<Optional<StoredResponse>> duplicate =
+                CompletableFuture.supplyAsync(() -> store.begin("key", "hash", Duration.ofSeconds(5)));
+        Thread.sleep(50);
+        assertThat(duplicate).isNotDone();
+
+        store.complete("key", CREATED);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).contains(CREATED);
+    }
+
+    @Test
+    void duplicateOfInFlightRequestConflictsAfterWait() {
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+
+        assertThatThrownBy(() -> store.begin("key", "hash", Duration.ofMillis(20)))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void abandonedKeyCanBeRetried() {
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+        store.abandon("key");
+
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyIsRejected() {
+        assertThat(store.begin("key", "hash", Duration.ZERO)).isEmpty();
+        store.complete("key", CREATED);
+
+        assertThatThrownBy(() -> store.begin("key", "other", Duration.ZERO))
+                .isInstanceOf(UnprocessableEntityException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mick.chatop.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enregistre la durée de chaque requête par point d'entrée, puis produit le rapport
+ * (nombre, erreurs, débit, p50 / p99 / max). Toutes les mesures sont conservées :
+ * les percentiles sont exacts, ce qui convient à des tirs de quelques minutes.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long durationNanos, boolean error) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(durationNanos, error);
+    }
+
+    /**
+     * @param elapsedNanos Durée totale du tir, pour le calcul du débit.
+     * @return Les statistiques par point d'entrée, triées par nom.
+     */
+    Map<String, EndpointReport> report(long elapsedNanos) {
+        Map<String, EndpointReport> report = new TreeMap<>();
+        samples.forEach((endpoint, endpointSamples) -> report.put(endpoint, endpointSamples.report(elapsedNanos)));
+        return report;
+    }
+
+    /**
+     * Statistiques d'un point d'entrée ; durées en millisecondes, débit en requêtes par seconde.
+     */
+    record EndpointReport(int count, int errors, double throughputPerSecond, double p50Ms, double p99Ms, double maxMs) {
+    }
+
+    private static final class Samples {
+
+        private long[] durations = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long durationNanos, boolean error) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = durationNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized EndpointReport report(long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            return new EndpointReport(
+                    count,
+                    errors,
+                    count / (elapsedNanos / 1e9),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.clamp(rank, 0, sorted.length - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.mick.chatop.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+
+/**
+ * Générateur de charge HTTP : chaque utilisateur virtuel (un thread virtuel) s'inscrit, publie une annonce,
+ * puis enchaîne jusqu'à la fin du tir un mélange de requêtes proche de l'usage réel :
+ *
+ * <pre>
+ *   rentals.list    30 %   GET  /api/rentals?embed=owner
+ *   rentals.detail  25 %   GET  /api/rentals/{id}
+ *   rentals.image   15 %   GET  /api/rentals/image/{filename}
+ *   messages.send   12 %   POST /api/messages
+ *   auth.login       8 %   POST /api/auth/login
+ *   rentals.create   5 %   POST /api/rentals (image de 64 Ko)
+ *   rentals.update   5 %   PUT  /api/rentals/{id} (image de 64 Ko)
+ * </pre>
+ *
+ * Le rapport JSON donne, par point d'entrée, le nombre de requêtes, les erreurs (statut 4xx/5xx
+ * ou échec réseau), le débit et les latences p50 / p99 / max. Seule exception : un 404 sur une image,
+ * remplacée par la mise à jour d'un autre utilisateur depuis la dernière lecture de la liste.
+ *
+ * Utilisable contre une instance déjà démarrée :
+ * {@code java -cp ... com.mick.chatop.load.LoadDriver} avec les propriétés système
+ * {@code chatop.load.base-url}, {@code chatop.load.users}, {@code chatop.load.duration} (ISO-8601, ex. PT60S)
+ * et {@code chatop.load.report}.
+ */
+public final class LoadDriver {
+
+    private static final String[] OPERATIONS =
+            {"rentals.list", "rentals.detail", "rentals.image", "messages.send", "auth.login", "rentals.create", "rentals.update"};
+    private static final int[] WEIGHTS = {30, 25, 15, 12, 8, 5, 5};
+    private static final int TOTAL_WEIGHT = 100;
+    private static final String PASSWORD = "load-test-password";
+
+    private final URI baseUrl;
+    private final int users;
+    private final Duration duration;
+    private final long seed;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicReference<List<KnownRental>> rentals = new AtomicReference<>(List.of());
+    private final byte[] image;
+    private final HttpClient httpClient;
+
+    /**
+     * @param baseUrl  URL de l'API (sans chemin).
+     * @param users    Nombre d'utilisateurs virtuels simultanés.
+     * @param duration Durée du tir, hors inscription des utilisateurs.
+     * @param seed     Graine du tirage des requêtes, pour rejouer le même mélange.
+     */
+    public LoadDriver(URI baseUrl, int users, Duration duration, long seed) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.duration = duration;
+        this.seed = seed;
+        this.image = new byte[64 * 1024];
+        new Random(seed).nextBytes(image);
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadDriver driver = new LoadDriver(
+                URI.create(System.getProperty("chatop.load.base-url", "http://localhost:8080")),
+                Integer.getInteger("chatop.load.users", 50),
+                Duration.parse(System.getProperty("chatop.load.duration", "PT60S")),
+                Long.getLong("chatop.load.seed", 42L));
+        Report report = driver.run();
+        Path output = Path.of(System.getProperty("chatop.load.report", "target/load-report.json"));
+        driver.write(report, output);
+        System.out.println("Rapport de charge écrit dans " + output.toAbsolutePath());
+    }
+
+    /**
+     * Exécute le tir et retourne le rapport.
+     *
+     * @throws IOException Si un utilisateur virtuel n'a pas pu s'inscrire : le tir n'aurait mesuré que des 401.
+     */
+    public Report run() throws IOException, InterruptedException {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        List<Future<Void>> signUps = new ArrayList<>(users);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                VirtualUser user = new VirtualUser("load-" + runId + "-" + i + "@test.com", new Random(seed + i));
+                virtualUsers.add(user);
+                signUps.add(executor.submit(() -> {
+                    user.signUp();
+                    return null;
+                }));
+            }
+        }
+        for (Future<Void> signUp : signUps) {
+            try {
+                signUp.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Virtual user sign-up failed", e.getCause());
+            }
+        }
+        refreshRentals(virtualUsers.getFirst().token);
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUser user : virtualUsers) {
+                executor.submit(() -> user.runUntil(deadline));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, LatencyRecorder.EndpointReport> endpoints = recorder.report(elapsed);
+        int total = endpoints.values().stream().mapToInt(LatencyRecorder.EndpointReport::count).sum();
+        return new Report(baseUrl.toString(), users, elapsed / 1e9, total, endpoints);
+    }
+
+    /**
+     * Écrit le rapport au format JSON.
+     */
+    public void write(Report report, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+    }
+
+    /**
+     * Rapport d'un tir : paramètres, volume total et statistiques par point d'entrée.
+     */
+    public record Report(String baseUrl, int users, double durationSeconds, int totalRequests,
+                         Map<String, LatencyRecorder.EndpointReport> endpoints) {
+    }
+
+    private record KnownRental(int id, int ownerId, String imageFilename) {
+    }
+
+    private final class VirtualUser {
+
+        private final String email;
+        private final Random random;
+        private String token;
+        private int id;
+
+        VirtualUser(String email, Random random) {
+            this.email = email;
+            this.random = random;
+        }
+
+        void signUp() throws IOException, InterruptedException {
+            HttpResponse<String> registered = send("auth.register", post("/api/auth/register",
+                    json(Map.of("email", email, "name", "Load " + email, "password", PASSWORD))));
+            token = objectMapper.readTree(registered.body()).path("token").asText();
+            if (registered.statusCode() >= 400 || token.isBlank()) {
+                throw new IOException("Registration of " + email + " failed with status " + registered.statusCode());
+            }
+            HttpResponse<String> me = send("auth.me", authorized("/api/auth/me").GET().build());
+            id = objectMapper.readTree(me.body()).path("id").asInt();
+            createRental();
+        }
+
+        Void runUntil(long deadline) {
+            while (System.nanoTime() < deadline) {
+                try {
+                    runOnce(pick());
+                } catch (IOException e) {
+                    // Échec déjà compté par send() ; l'utilisateur continue
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        private String pick() {
+            int draw = random.nextInt(TOTAL_WEIGHT);
+            for (int i = 0; i < WEIGHTS.length; i++) {
+                draw -= WEIGHTS[i];
+                if (draw < 0) {
+                    return OPERATIONS[i];
+                }
+            }
+            return OPERATIONS[0];
+        }
+
+        private void runOnce(String operation) throws IOException, InterruptedException {
+            List<KnownRental> known = rentals.get();
+            if (known.isEmpty()) {
+                refreshRentals(token);
+                return;
+            }
+            KnownRental rental = known.get(random.nextInt(known.size()));
+            switch (operation) {
+                case "rentals.list" -> refreshRentals(token);
+                case "rentals.detail" -> send(operation, authorized("/api/rentals/" + rental.id()).GET().build());
+                // La liste partagée peut être périmée : l'ancienne image d'une annonce mise à jour est supprimée
+                case "rentals.image" -> send(operation, request("/api/rentals/image/" + rental.imageFilename()).GET().build(),
+                        status -> status >= 400 && status != 404);
+                case "messages.send" -> send(operation, authorized("/api/messages")
+                        .header("Content-Type", "application/json")
+                        .POST(json(Map.of("rental_id", rental.id(), "user_id", id, "message", "Is it still available?")))
+                        .build());
+                case "auth.login" -> {
+                    HttpResponse<String> response = send(operation, post("/api/auth/login",
+                            json(Map.of("email", email, "password", PASSWORD))));
+                    token = objectMapper.readTree(response.body()).path("token").asText(token);
+                }
+                case "rentals.create" -> createRental();
+                case "rentals.update" -> {
+                    KnownRental own = known.stream().filter(candidate -> candidate.ownerId() == id).findAny().orElse(null);
+                    if (own != null) {
+                        Multipart body = multipart("Updated rental", random.nextInt(200) + 20.0, random.nextInt(2000) + 300.0);
+                        send(operation, authorized("/api/rentals/" + own.id())
+                                .header("Content-Type", body.contentType())
+                                .PUT(body.publisher())
+                                .build());
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+
+        private void createRental() throws IOException, InterruptedException {
+            Multipart body = multipart("Rental of " + email, random.nextInt(200) + 20.0, random.nextInt(2000) + 300.0);
+            send("rentals.create", authorized("/api/rentals")
+                    .header("Content-Type", body.contentType())
+                    .POST(body.publisher())
+                    .build());
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return request(path).header("Authorization", "Bearer " + token);
+        }
+    }
+
+    /**
+     * La liste des annonces sert aussi à connaître les identifiants et images disponibles pour les autres requêtes.
+     */
+    private void refreshRentals(String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("rentals.list", request("/api/rentals?embed=owner")
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+        List<KnownRental> known = new ArrayList<>();
+        for (JsonNode rental : objectMapper.readTree(response.body()).path("rentals")) {
+            String picture = rental.path("picture").asText();
+            known.add(new KnownRental(rental.path("id").asInt(), rental.path("owner_id").asInt(),
+                    picture.substring(picture.lastIndexOf('/') + 1)));
+        }
+        if (!known.isEmpty()) {
+            rentals.set(List.copyOf(known));
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        return send(endpoint, request, status -> status >= 400);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request, IntPredicate isError)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - start, isError.test(response.statusCode()));
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest post(String path, HttpRequest.BodyPublisher body) {
+        return request(path).header("Content-Type", "application/json").POST(body).build();
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, ?> body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private record Multipart(String contentType, HttpRequest.BodyPublisher publisher) {
+    }
+
+    private Multipart multipart(String name, double surface, double price) throws IOException {
+        String boundary = "chatop-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 1024);
+        for (Map.Entry<String, String> field : Map.of(
+                "name", name,
+                "surface", String.valueOf(surface),
+                "price", String.valueOf(price),
+                "description", "Generated by the load driver").entrySet()) {
+            body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey() + "\"\r\n\r\n"
+                    + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"picture\"; filename=\"picture.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return new Multipart("multipart/form-data; boundary=" + boundary,
+                HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.mick.chatop.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tir de charge de bout en bout sur l'application démarrée avec le profil {@code test} (H2 en mode MySQL).
+ * Exclu du build par défaut : {@code mvn -Pload-test test [-Dchatop.load.users=100 -Dchatop.load.duration=PT2M]}.
+ * Le rapport est écrit dans {@code target/load-report.json}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void replaysProductionMix() throws Exception {
+        LoadDriver driver = new LoadDriver(
+                URI.create("http://localhost:" + port),
+                Integer.getInteger("chatop.load.users", 20),
+                Duration.parse(System.getProperty("chatop.load.duration", "PT30S")),
+                Long.getLong("chatop.load.seed", 42L));
+
+        LoadDriver.Report report = driver.run();
+        driver.write(report, Path.of(System.getProperty("chatop.load.report", "target/load-report.json")));
+
+        assertThat(report.endpoints()).containsKeys(
+                "auth.login", "rentals.list", "rentals.detail", "rentals.image",
+                "rentals.create", "rentals.update", "messages.send");
+        assertThat(report.endpoints().values()).allSatisfy(endpoint -> assertThat(endpoint.errors()).isZero());
+    }
+}
@@ -0,0 +1,79 @@
+package com.mick.chatop.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(List.of("/api/rentals/image/**"));
+
+    @Test
+    void addsHeaderAfterTheBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> {
+            ServerTiming.add(ServerTiming.Phase.TOKEN, TimeUnit.MILLISECONDS.toNanos(2));
+            ServerTiming timing = ServerTiming.current();
+            timing.statementStarted();
+            timing.statementEnded();
+            servletResponse.getOutputStream().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+            servletResponse.flushBuffer();
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/rentals"), response, chain);
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .startsWith("token;dur=2.00")
+                .contains("db;dur=", "desc=\"1 statement\"")
+                .doesNotContain("json;")
+                .containsPattern("total;dur=\\d+\\.\\d{2}$");
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+        assertThat(ServerTiming.current()).isNull();
+    }
+
+    @Test
+    void skipsExcludedPaths() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/rentals/image/1.jpg"), response,
+                (req, res) -> assertThat(ServerTiming.current()).isNull());
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+    }
+
+    @Test
+    void asyncResponsesAreWrittenThroughAndNotMeasured() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/messages/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<ServletResponse> asyncResponse = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/event-stream");
+            req.startAsync(req, res);
+            asyncResponse.set(res);
+        });
+        // Écriture après la fin du filtre, comme depuis le thread d'un émetteur SSE
+        asyncResponse.get().getOutputStream().write("data:ping\n\n".getBytes(StandardCharsets.UTF_8));
+        asyncResponse.get().flushBuffer();
+
+        assertThat(response.getContentAsString()).isEqualTo("data:ping\n\n");
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+        assertThat(ServerTiming.current()).isNull();
+    }
+
+    @Test
+    void recordingOutsideARequestIsIgnored() {
+        ServerTiming.add(ServerTiming.Phase.JWT, 1_000);
+
+        assertThat(ServerTiming.current()).isNull();
+    }
+}
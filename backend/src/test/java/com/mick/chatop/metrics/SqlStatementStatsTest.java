@@ -0,0 +1,58 @@
+package com.mick.chatop.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementStatsTest {
+
+    private final SqlStatementStats stats = new SqlStatementStats(Duration.ofMinutes(1), 3);
+
+    @Test
+    void normalizesLiteralsAndParameterLists() {
+        assertThat(SqlStatementStats.normalize("select u1_0.id from users u1_0 where u1_0.email='a@b.c'  and u1_0.id=42"))
+                .isEqualTo("select u1_0.id from users u1_0 where u1_0.email=? and u1_0.id=?");
+        assertThat(SqlStatementStats.normalize("select * from users where id in (?, ?, ?)"))
+                .isEqualTo(SqlStatementStats.normalize("select * from users where id in (?,?)"));
+        assertThat(SqlStatementStats.normalize("insert into t (a, b) values (?, ?), (?, ?), (?, ?)"))
+                .isEqualTo("insert into t (a, b) values (?...), ...");
+    }
+
+    @Test
+    void groupsExecutionsAndCountsUpdatedRows() {
+        execute("update tokens set valid=0 where user_id=1", 1);
+        execute("update tokens set valid=0 where user_id=2", 3);
+        execute("select * from rentals", null);
+
+        assertThat(stats.mostFrequent(1)).singleElement().satisfies(top -> {
+            assertThat(top.sql()).isEqualTo("update tokens set valid=? where user_id=?");
+            assertThat(top.count()).isEqualTo(2);
+            assertThat(top.rows()).isEqualTo(4);
+        });
+        assertThat(stats.distinctStatements()).isEqualTo(2);
+    }
+
+    @Test
+    void boundsTheNumberOfDistinctStatements() {
+        for (String table : List.of("a", "b", "c", "d", "e")) {
+            execute("select * from " + table, null);
+        }
+
+        assertThat(stats.distinctStatements()).isEqualTo(3);
+        assertThat(stats.mostFrequent(3)).extracting(SqlStatementStats.Snapshot::sql).contains(SqlStatementStats.OTHER);
+    }
+
+    private void execute(String sql, Integer updated) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(true);
+        execInfo.setResult(updated);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        stats.beforeQuery(execInfo, queries);
+        stats.afterQuery(execInfo, queries);
+    }
+}
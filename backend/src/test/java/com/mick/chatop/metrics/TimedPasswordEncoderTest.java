@@ -0,0 +1,26 @@
+package com.mick.chatop.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TimedPasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), registry);
+
+    @Test
+    void recordsEncodeAndMatchesSeparately() {
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+
+        assertThat(registry.get(TimedPasswordEncoder.METRIC_NAME).tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(TimedPasswordEncoder.METRIC_NAME).tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+}
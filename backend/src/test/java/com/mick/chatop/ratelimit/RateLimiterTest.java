@@ -0,0 +1,85 @@
+package com.mick.chatop.ratelimit;
+
+import com.mick.chatop.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static RateLimiter limiter(int capacity, Duration refillPeriod) {
+        return new RateLimiter(new RateLimitProperties(true, Duration.ofMinutes(10), Map.of(
+                "login", new RateLimitProperties.Route("POST", "/api/auth/login", capacity, refillPeriod))));
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        RateLimiter.Route route = limiter(3, Duration.ofSeconds(3)).match("POST", "/api/auth/login");
+        long now = System.nanoTime();
+
+        assertThat(route.tryAcquireForClient("1.2.3.4", now)).isZero();
+        assertThat(route.tryAcquireForClient("1.2.3.4", now)).isZero();
+        assertThat(route.tryAcquireForClient("1.2.3.4", now)).isZero();
+
+        long wait = route.tryAcquireForClient("1.2.3.4", now);
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        // Un autre client dispose de son propre seau
+        assertThat(route.tryAcquireForClient("5.6.7.8", now)).isZero();
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        RateLimiter.Route route = limiter(2, Duration.ofSeconds(2)).match("POST", "/api/auth/login");
+        long now = System.nanoTime();
+
+        route.tryAcquireForSubject("user@test.com", now);
+        route.tryAcquireForSubject("user@test.com", now);
+        assertThat(route.tryAcquireForSubject("user@test.com", now)).isPositive();
+
+        long oneSecondLater = now + TimeUnit.SECONDS.toNanos(1);
+        assertThat(route.tryAcquireForSubject("user@test.com", oneSecondLater)).isZero();
+        assertThat(route.tryAcquireForSubject("user@test.com", oneSecondLater)).isPositive();
+    }
+
+    @Test
+    void subjectRejectionDoesNotConsumeTheClientToken() {
+        RateLimiter.Route route = limiter(2, Duration.ofSeconds(2)).match("POST", "/api/auth/login");
+        long now = System.nanoTime();
+        route.tryAcquireForSubject("user@test.com", now);
+        route.tryAcquireForSubject("user@test.com", now);
+
+        assertThat(route.tryAcquire("1.2.3.4", "user@test.com", now)).isPositive();
+
+        // Le jeton IP de la requête refusée a été rendu : l'adresse dispose encore de toute sa capacité
+        assertThat(route.tryAcquire("1.2.3.4", "other@test.com", now)).isZero();
+        assertThat(route.tryAcquire("1.2.3.4", null, now)).isZero();
+        assertThat(route.tryAcquire("1.2.3.4", null, now)).isPositive();
+    }
+
+    @Test
+    void ignoresUnconfiguredRoutes() {
+        RateLimiter rateLimiter = limiter(1, Duration.ofSeconds(1));
+
+        assertThat(rateLimiter.match("GET", "/api/auth/login")).isNull();
+        assertThat(rateLimiter.match("POST", "/api/rentals")).isNull();
+    }
+
+    @Test
+    void evictsOnlyIdleBuckets() {
+        RateLimiter rateLimiter = limiter(1, Duration.ofSeconds(1));
+        RateLimiter.Route route = rateLimiter.match("POST", "/api/auth/login");
+        route.tryAcquireForClient("1.2.3.4", System.nanoTime());
+
+        rateLimiter.evictIdleBuckets();
+        assertThat(route.size()).isEqualTo(1);
+
+        TokenBucket bucket = new TokenBucket(0);
+        assertThat(bucket.isIdle(TimeUnit.MINUTES.toNanos(11), TimeUnit.MINUTES.toNanos(10))).isTrue();
+        assertThat(bucket.isIdle(TimeUnit.MINUTES.toNanos(9), TimeUnit.MINUTES.toNanos(10))).isFalse();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mick.chatop.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Conserve le SQL émis par Hibernate, pour l'analyser ensuite avec EXPLAIN.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static List<String> drain() {
+        List<String> statements = List.copyOf(STATEMENTS);
+        STATEMENTS.clear();
+        return statements;
+    }
+}
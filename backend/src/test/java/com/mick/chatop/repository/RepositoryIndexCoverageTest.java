@@ -0,0 +1,143 @@
+package com.mick.chatop.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, sur le schéma créé par les migrations, que chaque méthode de requête déclarée dans les repositories
+ * est servie par un index : le SQL émis par Hibernate est analysé avec EXPLAIN et ne doit contenir
+ * aucun parcours complet de table. Une nouvelle méthode de requête sans cas ci-dessous fait échouer le test.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mick.chatop.repository.CapturingStatementInspector")
+@ActiveProfiles("test")
+class RepositoryIndexCoverageTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            ConversationRepository.class, MessageRepository.class, RentalRepository.class,
+            TokenRepository.class, UserRepository.class);
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Map<String, Runnable> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(20);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ConversationRepository.findLatestByOwner", () -> conversationRepository.findLatestByOwner(1, limit));
+        queries.put("ConversationRepository.findByOwnerBefore", () -> conversationRepository.findByOwnerBefore(1, now, 10, limit));
+        queries.put("ConversationRepository.markAsRead", () -> conversationRepository.markAsRead(1, 1));
+        queries.put("MessageRepository.findLatestByRental", () -> messageRepository.findLatestByRental(1, limit));
+        queries.put("MessageRepository.findByRentalBefore", () -> messageRepository.findByRentalBefore(1, now, 10, limit));
+        queries.put("MessageRepository.findLatestByUser", () -> messageRepository.findLatestByUser(1, limit));
+        queries.put("MessageRepository.findByUserBefore", () -> messageRepository.findByUserBefore(1, now, 10, limit));
+        queries.put("RentalRepository.findOwnerIdById", () -> rentalRepository.findOwnerIdById(1));
+        queries.put("RentalRepository.findVersionById", () -> rentalRepository.findVersionById(1));
+        queries.put("RentalRepository.findByOwnerId", () -> rentalRepository.findByOwnerId(1, limit));
+        queries.put("RentalRepository.findByOwnerIdBefore", () -> rentalRepository.findByOwnerIdBefore(1, now, 10, limit));
+        queries.put("TokenRepository.findByToken", () -> tokenRepository.findByToken("token"));
+        queries.put("TokenRepository.findAllByUserAndValidTrue",
+                () -> tokenRepository.findAllByUserAndValidTrue(userRepository.getReferenceById(1)));
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user@test.com"));
+        queries.put("UserRepository.findIdByEmail", () -> userRepository.findIdByEmail("user@test.com"));
+        queries.put("UserRepository.findNamesByIdIn", () -> userRepository.findNamesByIdIn(Set.of(1, 2, 3)));
+        return queries;
+    }
+
+    @Test
+    void everyQueryMethodIsChecked() {
+        List<String> declared = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic() && !method.isDefault()) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+
+        assertThat(queries().keySet()).containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    @Test
+    void everyQueryUsesAnIndex() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        queries().forEach((name, query) -> {
+            CapturingStatementInspector.drain();
+            transaction.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+            List<String> statements = CapturingStatementInspector.drain();
+
+            assertThat(statements).as(name).isNotEmpty();
+            for (String sql : statements) {
+                assertThat(explain(sql)).as(name + " : " + sql).doesNotContain("tableScan");
+            }
+        });
+    }
+
+    /**
+     * Plan d'exécution H2 ; un parcours complet apparaît sous la forme {@code /* table.tableScan *\/}.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setObject(i, sample(parameters.getParameterType(i)));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static Object sample(int sqlType) {
+        return switch (sqlType) {
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR -> "sample";
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> Timestamp.valueOf(LocalDateTime.now());
+            case Types.BOOLEAN, Types.BIT -> true;
+            case Types.BIGINT -> 1L;
+            default -> 1;
+        };
+    }
+}
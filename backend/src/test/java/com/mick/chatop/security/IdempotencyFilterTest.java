@@ -0,0 +1,108 @@
+package com.mick.chatop.security;
+
+import com.mick.chatop.idempotency.InMemoryIdempotencyStore;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"rental_id\":1,\"user_id\":2,\"message\":\"Bonjour\"}";
+
+    private final IdempotencyFilter filter =
+            new IdempotencyFilter(new InMemoryIdempotencyStore(Duration.ofHours(1), 100), Duration.ZERO);
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@test.com", null, List.of()));
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void acceptedResponseIsNotReplayed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(messageRequest(), new MockHttpServletResponse(), (request, response) -> {
+                calls.incrementAndGet();
+                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_ACCEPTED);
+            });
+        }
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void createdResponseIsReplayed() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MockHttpServletResponse replayed = new MockHttpServletResponse();
+
+        filter.doFilter(messageRequest(), new MockHttpServletResponse(), (request, response) -> {
+            calls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_CREATED);
+        });
+        filter.doFilter(messageRequest(), replayed, (request, response) -> calls.incrementAndGet());
+
+        assertThat(calls).hasValue(1);
+        assertThat(replayed.getStatus()).isEqualTo(HttpServletResponse.SC_CREATED);
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void cachedBodyCanBeReadAsynchronously() throws Exception {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+
+        filter.doFilter(messageRequest(), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        read.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    read.write('.');
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(BODY + ".");
+    }
+
+    private static MockHttpServletRequest messageRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/messages");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mick.chatop.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final byte[] SECRET =
+            "test-secret-key-test-secret-key-test-secret-key-test-secret-key-".getBytes(StandardCharsets.UTF_8);
+
+    private final JwtService jwtService =
+            new JwtService(new NimbusJwtEncoder(new ImmutableSecret<>(SECRET)), Set.of("admin@test.com"));
+    private final JwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(SECRET, "HmacSHA512"))
+            .macAlgorithm(MacAlgorithm.HS512)
+            .build();
+
+    @Test
+    void loginsInTheSameSecondGetDistinctTokens() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user@test.com", null, List.of());
+
+        String first = jwtService.generateToken(authentication);
+        String second = jwtService.generateToken(authentication);
+
+        assertThat(second).isNotEqualTo(first);
+        Jwt jwt = jwtDecoder.decode(first);
+        assertThat(jwt.getId()).isNotBlank();
+        assertThat(jwt.getIssuedAt()).isEqualTo(jwtDecoder.decode(second).getIssuedAt());
+    }
+
+    @Test
+    void adminTokenCarriesAdminScope() {
+        Jwt jwt = jwtDecoder.decode(jwtService.generateToken(
+                new UsernamePasswordAuthenticationToken("admin@test.com", null, List.of())));
+
+        assertThat(jwt.getClaimAsString("scope")).isEqualTo(JwtService.ADMIN_SCOPE);
+    }
+
+    @Test
+    void userTokenHasNoScope() {
+        Jwt jwt = jwtDecoder.decode(jwtService.generateToken(
+                new UsernamePasswordAuthenticationToken("user@test.com", null, List.of())));
+
+        assertThat(jwt.hasClaim("scope")).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package com.mick.chatop.service.impl;
+
+import com.mick.chatop.dto.MessageRequestDto;
+import com.mick.chatop.mapper.MessageMapper;
+import com.mick.chatop.messaging.MessageBatchWriter;
+import com.mick.chatop.messaging.PendingMessage;
+import com.mick.chatop.repository.MessageRepository;
+import com.mick.chatop.repository.RentalRepository;
+import com.mick.chatop.repository.UserRepository;
+import com.mick.chatop.streaming.MessageStreamBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageServiceImplTest {
+
+    private static final MessageRequestDto REQUEST = new MessageRequestDto(1, 2, "Bonjour");
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RentalRepository rentalRepository = mock(RentalRepository.class);
+    private final MessageBatchWriter messageBatchWriter = mock(MessageBatchWriter.class);
+
+    private MessageServiceImpl messageService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.existsById(2)).thenReturn(true);
+        when(rentalRepository.findOwnerIdById(1)).thenReturn(Optional.of(3));
+        messageService = new MessageServiceImpl(mock(MessageRepository.class), new MessageMapper(), userRepository,
+                rentalRepository, messageBatchWriter, mock(MessageStreamBroadcaster.class), Duration.ofMillis(10));
+    }
+
+    @Test
+    void writeStillInFlightAfterTimeoutIsAccepted() {
+        when(messageBatchWriter.withdraw(any())).thenReturn(false);
+
+        assertThat(messageService.createMessage(REQUEST)).isFalse();
+    }
+
+    @Test
+    void writeFailingAfterTimeoutIsPropagated() {
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("fk_messages_rental");
+        // L'écrivain a pris le message et son lot échoue entre l'expiration du délai et le retrait
+        when(messageBatchWriter.withdraw(any())).thenAnswer(invocation -> {
+            invocation.<PendingMessage>getArgument(0).completion().completeExceptionally(failure);
+            return false;
+        });
+
+        assertThatThrownBy(() -> messageService.createMessage(REQUEST)).isSameAs(failure);
+    }
+
+    @Test
+    void writeCommittedAfterTimeoutIsCreated() {
+        when(messageBatchWriter.withdraw(any())).thenAnswer(invocation -> {
+            invocation.<PendingMessage>getArgument(0).completion().complete(null);
+            return false;
+        });
+
+        assertThat(messageService.createMessage(REQUEST)).isTrue();
+    }
+}
@@ -0,0 +1,43 @@
+package com.mick.chatop.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalViewCounterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RentalViewCounter counter = new RentalViewCounter(new JdbcTemplate(), registry, 2);
+
+    @Test
+    void drainsConcurrentViewsOnceInRentalOrder() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 10_000).forEach(i -> executor.submit(() -> counter.recordView(i % 2 == 0 ? 7 : 3)));
+        }
+
+        assertThat(counter.drain()).containsExactly(Map.entry(3, 5_000L), Map.entry(7, 5_000L));
+        assertThat(counter.drain()).isEmpty();
+    }
+
+    @Test
+    void evictsIdleRentalsAndBoundsPendingEntries() {
+        counter.recordView(1);
+        counter.recordView(2);
+        counter.recordView(3);
+
+        assertThat(counter.drain()).containsExactly(Map.entry(1, 1L), Map.entry(2, 1L));
+        assertThat(registry.get("chatop.rentals.views.dropped").counter().count()).isEqualTo(1);
+
+        // Toujours présentes mais sans nouvelle vue : retirées à la relève suivante, la place est libérée
+        assertThat(counter.drain()).isEmpty();
+        counter.recordView(3);
+        assertThat(counter.drain()).containsExactly(Map.entry(3, 1L));
+    }
+}
@@ -0,0 +1,140 @@
+package com.mick.chatop.stats;
+
+import com.mick.chatop.exception.BadRequestException;
+import com.mick.chatop.messaging.MessageCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrendingRentalsTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-02T10:00:30Z"));
+    private final StubRebuildSource rebuildSource = new StubRebuildSource();
+    private final TrendingRentals trending = new TrendingRentals(rebuildSource, 2, clock);
+    private int nextId = 1;
+
+    @Test
+    void ranksRentalsByMessagesAndKeepsTopK() {
+        trending.finishRebuild(0);
+        message(7);
+        message(7);
+        message(3);
+        message(3);
+        message(9);
+        trending.refresh();
+
+        assertThat(trending.top(TrendingRentals.Window.DAY, 10))
+                .containsExactly(new TrendingRentals.Entry(3, 2), new TrendingRentals.Entry(7, 2));
+        assertThat(trending.top(TrendingRentals.Window.WEEK, 1)).containsExactly(new TrendingRentals.Entry(3, 2));
+    }
+
+    @Test
+    void evictsMessagesLeavingEachWindow() {
+        trending.finishRebuild(0);
+        message(7);
+        clock.advance(Duration.ofHours(2));
+        message(3);
+        trending.refresh();
+
+        clock.advance(Duration.ofHours(23));
+        trending.refresh();
+        assertThat(trending.top(TrendingRentals.Window.DAY, 10)).containsExactly(new TrendingRentals.Entry(3, 1));
+        assertThat(trending.top(TrendingRentals.Window.WEEK, 10)).hasSize(2);
+
+        clock.advance(Duration.ofDays(7));
+        trending.refresh();
+        assertThat(trending.top(TrendingRentals.Window.DAY, 10)).isEmpty();
+        assertThat(trending.top(TrendingRentals.Window.WEEK, 10)).isEmpty();
+    }
+
+    @Test
+    void appliesOnlyMessagesNotCoveredByTheRebuild() {
+        message(7); // id 1, lu par la reconstruction
+        message(3); // id 2, enregistré après la lecture de MAX(id)
+
+        trending.finishRebuild(1);
+        message(3);
+        trending.refresh();
+
+        assertThat(trending.top(TrendingRentals.Window.DAY, 10)).containsExactly(new TrendingRentals.Entry(3, 2));
+    }
+
+    @Test
+    void rebuildCountsScannedMessagesAndLaterEvents() {
+        LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), clock.getZone());
+        rebuildSource.rows = new Object[][]{{7, now.minusHours(1)}, {7, now.minusDays(2)}, {3, now.minusDays(8)}};
+        rebuildSource.upToId = 3;
+        nextId = 3;
+        message(7); // id 3, déjà lu par la reconstruction
+        message(9); // id 4, validé après l'instantané
+
+        trending.rebuild();
+
+        assertThat(trending.top(TrendingRentals.Window.DAY, 10))
+                .containsExactly(new TrendingRentals.Entry(7, 1), new TrendingRentals.Entry(9, 1));
+        assertThat(trending.top(TrendingRentals.Window.WEEK, 10))
+                .containsExactly(new TrendingRentals.Entry(7, 2), new TrendingRentals.Entry(9, 1));
+    }
+
+    @Test
+    void rejectsUnknownWindow() {
+        assertThat(TrendingRentals.Window.parse("7D")).isEqualTo(TrendingRentals.Window.WEEK);
+        assertThatThrownBy(() -> TrendingRentals.Window.parse("1h")).isInstanceOf(BadRequestException.class);
+    }
+
+    private void message(int rentalId) {
+        trending.onMessageCreated(new MessageCreatedEvent(nextId++, rentalId, 1, 2, "Bonjour",
+                LocalDateTime.ofInstant(clock.instant(), clock.getZone())));
+    }
+
+    private static final class StubRebuildSource implements TrendingRebuildSource {
+        private Object[][] rows = {};
+        private long upToId;
+
+        @Override
+        public long scan(LocalDateTime since, MessageVisitor visitor) {
+            for (Object[] row : rows) {
+                LocalDateTime createdAt = (LocalDateTime) row[1];
+                if (!createdAt.isBefore(since)) {
+                    visitor.accept((Integer) row[0], createdAt);
+                }
+            }
+            return upToId;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
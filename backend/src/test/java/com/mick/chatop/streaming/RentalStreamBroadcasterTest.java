@@ -0,0 +1,68 @@
+package com.mick.chatop.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mick.chatop.dto.RentalDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalStreamBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final RentalStreamBroadcaster broadcaster =
+            new RentalStreamBroadcaster(objectMapper, Duration.ofMinutes(1), 4, 5, 3);
+
+    @Test
+    void coalescesChangesPerRentalUntilTheNextFlush() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 2, 10, 0);
+        broadcaster.onRentalChanged(RentalChangedEvent.created(
+                new RentalDto(1, "Loft", 40.0, 900.0, "Calme", "http://img/1.jpg", 7, now, now, 0L, 0L)));
+        broadcaster.onRentalChanged(RentalChangedEvent.updated(1, Map.of("price", 950.0, "version", 1L)));
+        broadcaster.onRentalChanged(RentalChangedEvent.updated(2, Map.of("name", "Studio")));
+        broadcaster.flush();
+
+        List<RentalStreamBroadcaster.Published> published = broadcaster.missedSince(broadcaster.eventId(0));
+        assertThat(published).extracting(RentalStreamBroadcaster.Published::sequence).containsExactly(1L, 2L);
+        assertThat(data(published.get(0)))
+                .contains("\"id\":1", "\"kind\":\"created\"", "\"name\":\"Loft\"", "\"price\":950.0", "\"version\":1");
+        assertThat(data(published.get(1))).contains("\"id\":2", "\"kind\":\"updated\"", "\"fields\":{\"name\":\"Studio\"}");
+
+        broadcaster.flush();
+        assertThat(broadcaster.missedSince(broadcaster.eventId(2))).isEmpty();
+    }
+
+    @Test
+    void resumesFromTheHistoryOrAsksForAReset() {
+        for (int rentalId = 1; rentalId <= 4; rentalId++) {
+            broadcaster.onRentalChanged(RentalChangedEvent.updated(rentalId, Map.of("name", "Annonce " + rentalId)));
+            broadcaster.flush();
+        }
+
+        assertThat(broadcaster.missedSince(null)).isEmpty();
+        assertThat(broadcaster.missedSince(broadcaster.eventId(2)))
+                .extracting(RentalStreamBroadcaster.Published::sequence).containsExactly(3L, 4L);
+        assertThat(broadcaster.missedSince(broadcaster.eventId(1)))
+                .extracting(RentalStreamBroadcaster.Published::sequence).containsExactly(2L, 3L, 4L);
+        // Sorti de l'historique (3 événements), identifiant d'un autre démarrage ou illisible : relecture complète
+        assertThat(broadcaster.missedSince(broadcaster.eventId(0))).isNull();
+        assertThat(broadcaster.missedSince("0-2")).isNull();
+        assertThat(broadcaster.missedSince("abc")).isNull();
+    }
+
+    private static String data(RentalStreamBroadcaster.Published published) {
+        return published.event().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .map(String::valueOf)
+                .collect(Collectors.joining());
+    }
+}
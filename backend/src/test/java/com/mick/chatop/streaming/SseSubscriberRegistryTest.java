@@ -0,0 +1,45 @@
+package com.mick.chatop.streaming;
+
+import com.mick.chatop.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SseSubscriberRegistryTest {
+
+    private final SseSubscriberRegistry registry = new SseSubscriberRegistry(Duration.ofMinutes(1), 4, 2);
+
+    @AfterEach
+    void close() {
+        registry.close();
+    }
+
+    @Test
+    void rejectsConnectionsBeyondTheLimitPerUser() {
+        registry.subscribe(1);
+        registry.subscribe(1);
+        registry.subscribe(2);
+
+        assertThatThrownBy(() -> registry.subscribe(1)).isInstanceOf(TooManyRequestsException.class);
+        assertThat(registry.connectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void subscriptionAfterTheLastUnsubscribeIsIndexed() {
+        List<SseSubscriber> opened = new ArrayList<>();
+        registry.subscribe(1, opened::add);
+        registry.unsubscribe(1, opened.getFirst());
+        assertThat(registry.isConnected(1)).isFalse();
+
+        registry.subscribe(1, opened::add);
+
+        assertThat(registry.isConnected(1)).isTrue();
+        assertThat(registry.connectionCount()).isEqualTo(1);
+    }
+}
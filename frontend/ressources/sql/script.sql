@@ -1,37 +1,112 @@
-CREATE TABLE `USERS` (
-  `id` integer PRIMARY KEY AUTO_INCREMENT,
-  `email` varchar(255),
-  `name` varchar(255),
-  `password` varchar(255),
-  `created_at` timestamp,
-  `updated_at` timestamp
+-- Schéma complet de la base MySQL, équivalent aux migrations Flyway du backend
+-- (backend/src/main/resources/db/migration), à utiliser pour créer une base à la main.
+-- L'application applique elle-même les migrations au démarrage : ne pas exécuter ce script
+-- sur une base qu'elle gère (ses index existeraient déjà).
+
+CREATE TABLE users (
+    id INT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX uk_users_email ON users (email);
+
+CREATE TABLE rentals (
+    id INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    surface DOUBLE NOT NULL,
+    price DOUBLE NOT NULL,
+    description VARCHAR(2000) NOT NULL,
+    picture VARCHAR(255) NOT NULL,
+    owner_id INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE rentals ADD CONSTRAINT fk_rentals_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE TABLE messages (
+    id INT NOT NULL AUTO_INCREMENT,
+    rental_id INT NOT NULL,
+    user_id INT NOT NULL,
+    message VARCHAR(2000) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_messages_rental_created ON messages (rental_id, created_at, id);
+CREATE INDEX idx_messages_user_created ON messages (user_id, created_at, id);
+ALTER TABLE messages ADD CONSTRAINT fk_messages_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
+ALTER TABLE messages ADD CONSTRAINT fk_messages_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+CREATE TABLE tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token VARCHAR(512) NOT NULL,
+    user_id INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    valid BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
 );
 
-CREATE TABLE `RENTALS` (
-  `id` integer PRIMARY KEY AUTO_INCREMENT,
-  `name` varchar(255),
-  `surface` numeric,
-  `price` numeric,
-  `picture` varchar(255),
-  `description` varchar(2000),
-  `owner_id` integer NOT NULL,
-  `created_at` timestamp,
-  `updated_at` timestamp
+CREATE UNIQUE INDEX uk_tokens_token ON tokens (token);
+ALTER TABLE tokens ADD CONSTRAINT fk_tokens_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+CREATE TABLE conversations (
+    id INT NOT NULL AUTO_INCREMENT,
+    rental_id INT NOT NULL,
+    user_id INT NOT NULL,
+    owner_id INT NOT NULL,
+    last_message VARCHAR(255) NOT NULL,
+    last_message_at DATETIME(6) NOT NULL,
+    unread_count INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
 );
 
-CREATE TABLE `MESSAGES` (
-  `id` integer PRIMARY KEY AUTO_INCREMENT,
-  `rental_id` integer,
-  `user_id` integer,
-  `message` varchar(2000),
-  `created_at` timestamp,
-  `updated_at` timestamp
+CREATE UNIQUE INDEX uk_conversations_rental_user ON conversations (rental_id, user_id);
+CREATE INDEX idx_conversations_owner_last ON conversations (owner_id, last_message_at, id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE conversations ADD CONSTRAINT fk_conversations_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64) NOT NULL,
+    status INT,
+    content_type VARCHAR(255),
+    body MEDIUMBLOB,
+    request_hash CHAR(64),
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
 );
 
-CREATE UNIQUE INDEX `USERS_index` ON `USERS` (`email`);
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
 
-ALTER TABLE `RENTALS` ADD FOREIGN KEY (`owner_id`) REFERENCES `USERS` (`id`);
+-- Index des requêtes fréquentes (V2)
 
-ALTER TABLE `MESSAGES` ADD FOREIGN KEY (`user_id`) REFERENCES `USERS` (`id`);
+-- Tokens valides d'un utilisateur (déconnexion) ; sert aussi d'index à la clé étrangère user_id
+CREATE INDEX idx_tokens_user_valid ON tokens (user_id, valid);
+
+-- Annonces d'un propriétaire, paginées par clé (V3, remplace idx_rentals_owner de la V2)
+CREATE INDEX idx_rentals_owner_created ON rentals (owner_id, created_at, id);
+
+-- Annonces récemment modifiées
+CREATE INDEX idx_rentals_updated ON rentals (updated_at);
+
+-- Compteurs de vues des annonces (V4), alimentés par lots depuis la mémoire
+CREATE TABLE rental_stats (
+    rental_id INT NOT NULL,
+    views BIGINT DEFAULT 0 NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (rental_id)
+);
 
-ALTER TABLE `MESSAGES` ADD FOREIGN KEY (`rental_id`) REFERENCES `RENTALS` (`id`);
+ALTER TABLE rental_stats ADD CONSTRAINT fk_rental_stats_rental FOREIGN KEY (rental_id) REFERENCES rentals (id);
@@ -1,5 +1,7 @@
+import { UserNames } from "src/app/services/user.service";
 import { Rental } from "../rental.interface";
 
 export interface RentalsResponse {
     rentals: Rental[];
-}
\ No newline at end of file
+    owners?: UserNames;
+}
@@ -7,5 +7,6 @@ export interface Rental {
 	description: string,
 	owner_id: number,
 	created_at: Date,
-	updated_at: Date
+	updated_at: Date,
+	views?: number
 }
\ No newline at end of file
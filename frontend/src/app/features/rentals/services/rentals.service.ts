@@ -1,9 +1,10 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { Observable, tap } from 'rxjs';
 import { Rental } from 'src/app/features/rentals/interfaces/rental.interface';
 import { RentalResponse } from '../interfaces/api/rentalResponse.interface';
 import { RentalsResponse } from '../interfaces/api/rentalsResponse.interface';
+import { UserService } from 'src/app/services/user.service';
 
 
 @Injectable({
@@ -13,10 +14,13 @@ export class RentalsService {
 
   private pathService = 'api/rentals';
 
-  constructor(private httpClient: HttpClient) { }
+  constructor(private httpClient: HttpClient, private userService: UserService) { }
 
   public all(): Observable<RentalsResponse> {
-    return this.httpClient.get<RentalsResponse>(this.pathService);
+    // Les noms des propriétaires sont inclus dans la réponse : aucun appel par annonce
+    return this.httpClient.get<RentalsResponse>(this.pathService, { params: { embed: 'owner' } }).pipe(
+      tap((response: RentalsResponse) => this.userService.cacheNames(response.owners ?? {}))
+    );
   }
 
   public detail(id: string): Observable<Rental> {
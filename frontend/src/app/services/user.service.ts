@@ -1,18 +1,80 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { catchError, forkJoin, map, Observable, of, shareReplay, switchMap, timer } from 'rxjs';
 import { User } from '../interfaces/user.interface';
 
+export type UserNames = { [id: number]: string };
+
 @Injectable({
   providedIn: 'root'
 })
 export class UserService {
 
+  // Limite du nombre d'identifiants acceptés par GET api/user?ids=
+  private static readonly MAX_IDS = 100;
+
   private pathService = 'api/user';
 
+  private names = new Map<number, Observable<string | undefined>>();
+  private pendingIds = new Set<number>();
+  private batch$: Observable<UserNames> | null = null;
+
   constructor(private httpClient: HttpClient) { }
 
   public getUserById(id: number): Observable<User> {
     return this.httpClient.get<User>(`${this.pathService}/${id}`);
   }
+
+  /**
+   * Nom d'un utilisateur. Les demandes faites pendant un même cycle (par exemple une liste
+   * d'annonces) sont regroupées en un seul appel api/user?ids=..., et les noms sont mis en cache.
+   */
+  public getUserName(id: number): Observable<string | undefined> {
+    let name$ = this.names.get(id);
+    if (!name$) {
+      this.pendingIds.add(id);
+      name$ = this.nextBatch().pipe(map((names: UserNames) => names[id]));
+      this.names.set(id, name$);
+    }
+    return name$;
+  }
+
+  /**
+   * Alimente le cache avec des noms déjà reçus (par exemple GET api/rentals?embed=owner).
+   */
+  public cacheNames(names: UserNames): void {
+    Object.entries(names).forEach(([id, name]) => this.names.set(Number(id), of(name)));
+  }
+
+  private nextBatch(): Observable<UserNames> {
+    if (!this.batch$) {
+      this.batch$ = timer(0).pipe(
+        switchMap(() => {
+          const ids = Array.from(this.pendingIds);
+          this.pendingIds.clear();
+          this.batch$ = null;
+          return this.fetchNames(ids);
+        }),
+        shareReplay(1)
+      );
+    }
+    return this.batch$;
+  }
+
+  private fetchNames(ids: number[]): Observable<UserNames> {
+    const chunks: Observable<UserNames>[] = [];
+    for (let i = 0; i < ids.length; i += UserService.MAX_IDS) {
+      const chunk = ids.slice(i, i + UserService.MAX_IDS);
+      chunks.push(
+        this.httpClient.get<UserNames>(this.pathService, { params: { ids: chunk.join(',') } }).pipe(
+          catchError(() => {
+            // Échec : les noms seront redemandés au prochain affichage
+            chunk.forEach((id: number) => this.names.delete(id));
+            return of({});
+          })
+        )
+      );
+    }
+    return forkJoin(chunks).pipe(map((results: UserNames[]) => Object.assign({}, ...results)));
+  }
 }
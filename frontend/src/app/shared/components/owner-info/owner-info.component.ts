@@ -1,5 +1,4 @@
-import { Component, Input, OnChanges, OnInit, SimpleChanges } from '@angular/core';
-import { User } from 'src/app/interfaces/user.interface';
+import { Component, Input, OnChanges, SimpleChanges } from '@angular/core';
 import { UserService } from 'src/app/services/user.service';
 
 @Component({
@@ -19,12 +18,10 @@ export class OwnerInfoComponent implements OnChanges {
 
   public ngOnChanges(changes: SimpleChanges): void {
     if (changes['ownerId'].currentValue !== changes['ownerId'].previousValue) {
+      // Les composants d'une même liste partagent un seul appel groupé (voir UserService)
       this.userService
-        .getUserById(changes['ownerId'].currentValue)
-        .subscribe((user: User) => this.name = user.name);
+        .getUserName(changes['ownerId'].currentValue)
+        .subscribe((name: string | undefined) => this.name = name ?? null);
     }
-
-
-
   }
 }